@@ -0,0 +1,12 @@
+-- Drops the indexes added by database/migrations/001-hot-query-indexes.sql,
+-- so the "before" query plans can be captured on a seeded database.
+
+drop index if exists idx_users_lower_email;
+drop index if exists idx_faculty_department;
+drop index if exists idx_requests_created_by;
+drop index if exists idx_requests_department_queue;
+drop index if exists idx_requests_approved_by;
+drop index if exists idx_comments_request_id;
+drop index if exists idx_password_reset_token_token;
+
+analyze;
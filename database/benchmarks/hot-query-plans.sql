@@ -0,0 +1,90 @@
+-- EXPLAIN ANALYZE of every hot repository query, with the parameters bound to values from seed-1m-requests.sql.
+-- Run it once after drop-hot-query-indexes.sql and once after migrations/001-hot-query-indexes.sql:
+--
+--   psql "$BENCH_DB_URL" -f database/benchmarks/hot-query-plans.sql > plans-before.txt
+--
+-- The SQL mirrors the repository methods; keep the two in sync when a query changes.
+
+\pset pager off
+\timing on
+
+\echo '== UserRepository.findByEmail'
+explain (analyze, buffers)
+select u.email
+from users u
+where lower(u.email) = lower('Student4242@example.com');
+
+\echo '== FacultyRepository.findFacultyByDepartment'
+explain (analyze, buffers)
+select f.email
+from faculty f
+where f.department = 1;
+
+\echo '== RequestRepository.findStudentDashboardRequests'
+explain (analyze, buffers)
+select r.id, r.type, r.status, r.created_at, u.first_name, u.last_name
+from requests r
+         join users u on u.email = r.created_by
+where r.created_by = 'student4242@example.com'
+order by r.created_at desc, r.id desc;
+
+\echo '== Faculty queue as a single OR (the former derived query findAllByApprovedByEmailOrAssignedDepartmentAndStatusIsNot, paged)'
+explain (analyze, buffers)
+select r.id, r.type, r.status, r.created_at, u.first_name, u.last_name
+from requests r
+         join users u on u.email = r.created_by
+where r.approved_by = 'faculty1@example.com'
+   or (r.assigned_department = 1 and r.status <> 'withdrawn')
+order by r.created_at desc, r.id desc
+limit 26;
+
+\echo '== RequestRepository.findFacultyQueueFirstPage'
+explain (analyze, buffers)
+select r.id, r.type, r.status, r.created_at, u.first_name, u.last_name
+from ((select *
+       from requests r
+       where r.assigned_department = 1 and r.status <> 'withdrawn'
+       order by r.created_at desc, r.id desc
+       limit 26)
+      union all
+      (select *
+       from requests r
+       where r.approved_by = 'faculty1@example.com' and (r.assigned_department <> 1 or r.status = 'withdrawn')
+       order by r.created_at desc, r.id desc
+       limit 26)) r
+         join users u on u.email = r.created_by
+order by r.created_at desc, r.id desc
+limit 26;
+
+\echo '== RequestRepository.findFacultyQueueAfter, deep in the history'
+explain (analyze, buffers)
+select r.id, r.type, r.status, r.created_at, u.first_name, u.last_name
+from ((select *
+       from requests r
+       where r.assigned_department = 1 and r.status <> 'withdrawn'
+         and (r.created_at, r.id) < (timestamp '2024-06-01', 1)
+       order by r.created_at desc, r.id desc
+       limit 26)
+      union all
+      (select *
+       from requests r
+       where r.approved_by = 'faculty1@example.com' and (r.assigned_department <> 1 or r.status = 'withdrawn')
+         and (r.created_at, r.id) < (timestamp '2024-06-01', 1)
+       order by r.created_at desc, r.id desc
+       limit 26)) r
+         join users u on u.email = r.created_by
+order by r.created_at desc, r.id desc
+limit 26;
+
+\echo '== Comments of a request'
+explain (analyze, buffers)
+select c.id, c.text, c.created_at
+from comments c
+where c.request_id = 424242
+order by c.created_at, c.id;
+
+\echo '== PasswordResetTokenRepository.findByToken'
+explain (analyze, buffers)
+select t.id, t.email, t.expiry_date
+from password_reset_token t
+where t.token = md5('4242');
@@ -0,0 +1,20 @@
+-- Makes the synthetic users of seed-1m-requests.sql able to log in, for the load tests in loadtest/.
+-- Every user gets the password "loadtest" and the authority matching their role.
+--
+-- Never run this against a real database.
+
+create extension if not exists pgcrypto;
+
+-- One BCrypt hash shared by all users; hashing 20,000 passwords one by one would take half an hour
+update users
+set password = (select crypt('loadtest', gen_salt('bf', 10)));
+
+insert into authorities (authority, email)
+select 'STUDENT', email
+from students
+on conflict do nothing;
+
+insert into authorities (authority, email)
+select 'FACULTY', email
+from faculty
+on conflict do nothing;
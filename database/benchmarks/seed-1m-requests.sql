@@ -0,0 +1,63 @@
+-- Fills a database created from database/init.sql with synthetic data for query plan comparisons:
+-- 20,000 students, 30 faculty members (10 per department), 1,000,000 requests spread over two years,
+-- 1,000,000 comments and 10,000 password reset tokens.
+--
+-- Never run this against a real database.
+
+insert into users (email, password, first_name, last_name, phone)
+select 'student' || g || '@example.com', 'not-a-hash', 'Student', 'Number ' || g, '5550000000'
+from generate_series(1, 20000) g;
+
+insert into students (email, studentid)
+select 'student' || g || '@example.com', 'S' || g
+from generate_series(1, 20000) g;
+
+-- Faculty member n works in department n % 3 (0 = REGISTRARS_OFFICE, 1 = STUDENT_AFFAIRS, 2 = HOUSING_OFFICE)
+insert into users (email, password, first_name, last_name, phone)
+select 'faculty' || g || '@example.com', 'not-a-hash', 'Faculty', 'Number ' || g, '5550000000'
+from generate_series(0, 29) g;
+
+insert into faculty (email, department)
+select 'faculty' || g || '@example.com', g % 3
+from generate_series(0, 29) g;
+
+-- Request g has type g % 3 (leave of absence, course registration, student housing), which fixes its department,
+-- and status g % 4 (open, approved, rejected, withdrawn). Decided requests name a faculty member of that department.
+insert into requests (status, created_at, created_by, approved_at, approved_by,
+                      course_id, semester, start_date, end_date, housing_type, duration, reason,
+                      request_type, type, assigned_department)
+select s.status,
+       s.created_at,
+       'student' || (1 + g % 20000) || '@example.com',
+       case when s.status in ('approved', 'rejected') then s.created_at + interval '2 days' end,
+       case when s.status in ('approved', 'rejected') then 'faculty' || (s.department + 3 * (g % 10)) || '@example.com' end,
+       case when s.type = 'course_registration' then 10000 + g % 5000 end,
+       case when s.type = 'course_registration' then 'Fall' end,
+       case when s.type = 'leave_of_absence' then s.created_at::date + 7 end,
+       case when s.type = 'leave_of_absence' then s.created_at::date + 30 end,
+       case when s.type = 'student_housing' then 'Single Room' end,
+       case when s.type = 'student_housing' then '1 Semester' end,
+       'Synthetic request ' || g,
+       s.type,
+       s.type,
+       s.department
+from generate_series(1, 1000000) g
+         cross join lateral (
+    select (array ['open', 'approved', 'rejected', 'withdrawn'])[1 + g % 4]                              as status,
+           (array ['leave_of_absence', 'course_registration', 'student_housing'])[1 + g % 3]            as type,
+           (array [1, 0, 2])[1 + g % 3]                                                                 as department,
+           timestamp '2024-01-01' + (g || ' minutes')::interval                                         as created_at
+    ) s;
+
+insert into comments (request_id, user_id, text, created_at)
+select 1 + (g * 7919) % 1000000,
+       'student' || (1 + g % 20000) || '@example.com',
+       'Synthetic comment ' || g,
+       timestamp '2024-01-01' + (g || ' minutes')::interval
+from generate_series(1, 1000000) g;
+
+insert into password_reset_token (id, token, email, expiry_date)
+select g, md5(g::text), 'student' || g || '@example.com', now() + interval '1 day'
+from generate_series(1, 10000) g;
+
+analyze;
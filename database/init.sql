@@ -48,8 +48,12 @@ create table requests
 (
     id                  serial
         primary key,
-    status              text         not null,
+    status              text         not null
+        constraint requests_status_check
+            check (status in ('open', 'approved', 'rejected', 'withdrawn')),
+    version             integer      not null default 0,
     created_at          timestamp default CURRENT_TIMESTAMP,
+    updated_at          timestamp    not null default now(),
     created_by          varchar(255) not null
         references users
             on delete cascade,
@@ -65,20 +69,178 @@ create table requests
     start_date          date,
     request_type        varchar(31),
     type                varchar(50)  not null,
-    assigned_department smallint     not null
+    assigned_department smallint     not null,
+    search_vector       tsvector generated always as (to_tsvector('english', coalesce(reason, ''))) stored
 );
 
+-- Request IDs are allocated 50 at a time, see Request
+alter sequence requests_id_seq increment by 50;
+
 create table comments
 (
-    id         bigint generated by default as identity
+    id            bigint generated by default as identity
         constraint pk_comments
             primary key,
-    request_id integer      not null
+    request_id    integer      not null
         references requests,
-    user_id    varchar(255) not null
+    user_id       varchar(255) not null
         constraint fk_comments_on_user
             references users,
-    text       varchar(255) not null,
-    created_at timestamp    not null
+    text          varchar(255) not null,
+    created_at    timestamp    not null,
+    search_vector tsvector generated always as (to_tsvector('english', text)) stored
+);
+
+
+create table password_reset_token
+(
+    id          bigint       not null
+        constraint pk_password_reset_token
+            primary key,
+    token       varchar(255),
+    email       varchar(255) not null
+        constraint uc_password_reset_token_email
+            unique
+        constraint fk_password_reset_token_on_email
+            references users,
+    expiry_date timestamp
+);
+
+create sequence password_reset_token_seq increment by 50;
+
+create table email_outbox
+(
+    id              bigint       not null
+        constraint pk_email_outbox
+            primary key,
+    recipient       varchar(255) not null,
+    subject         varchar(255) not null,
+    body            text         not null,
+    status          varchar(16)  not null default 'PENDING',
+    attempts        integer      not null default 0,
+    next_attempt_at timestamp    not null,
+    last_error      text,
+    created_at      timestamp    not null,
+    sent_at         timestamp
 );
 
+create sequence email_outbox_seq increment by 50;
+
+create index idx_email_outbox_due
+    on email_outbox (next_attempt_at, id)
+    where status = 'PENDING';
+
+-- Request counts and decision times per department, maintained on every status change,
+-- see database/migrations/007-department-statistics.sql
+
+create table department_statistics
+(
+    department      smallint  not null
+        constraint pk_department_statistics
+            primary key,
+    open_count      bigint    not null default 0,
+    approved_count  bigint    not null default 0,
+    rejected_count  bigint    not null default 0,
+    withdrawn_count bigint    not null default 0,
+    updated_at      timestamp not null default now()
+);
+
+create table department_decision_latency
+(
+    department smallint not null,
+    bucket     smallint not null,
+    decisions  bigint   not null default 0,
+    constraint pk_department_decision_latency
+        primary key (department, bucket)
+);
+
+-- The histogram bucket of a decision time, must match DecisionLatencyHistogram.UPPER_BOUNDS:
+-- bucket 0 holds decisions made within an hour, bucket 9 decisions that took 30 days or more
+create function decision_latency_bucket(latency interval) returns smallint
+    language sql
+    immutable
+as
+$$
+select width_bucket(extract(epoch from latency),
+                    array [3600, 14400, 43200, 86400, 172800, 345600, 604800, 1209600, 2592000]::numeric[])::smallint
+$$;
+
+-- A counter per dashboard, bumped whenever its content changes, see database/migrations/008-change-stamps.sql.
+-- The scope is 'department:<name>' for a faculty dashboard and 'student:<email>' for a student dashboard.
+create table change_stamps
+(
+    scope      varchar(300) not null
+        constraint pk_change_stamps
+            primary key,
+    version    bigint       not null default 1,
+    changed_at timestamp    not null default now()
+);
+
+-- HTTP sessions, shared by all app instances, see database/migrations/009-spring-session.sql.
+-- The layout is the one Spring Session JDBC expects; times are epoch milliseconds.
+create table spring_session
+(
+    primary_id            char(36)     not null
+        constraint spring_session_pk
+            primary key,
+    session_id            char(36)     not null,
+    creation_time         bigint       not null,
+    last_access_time      bigint       not null,
+    max_inactive_interval int          not null,
+    expiry_time           bigint       not null,
+    principal_name        varchar(100)
+);
+
+create unique index spring_session_ix1
+    on spring_session (session_id);
+
+create index spring_session_ix2
+    on spring_session (expiry_time);
+
+create index spring_session_ix3
+    on spring_session (principal_name);
+
+create table spring_session_attributes
+(
+    session_primary_id char(36)     not null
+        constraint spring_session_attributes_fk
+            references spring_session
+            on delete cascade,
+    attribute_name     varchar(200) not null,
+    attribute_bytes    bytea        not null,
+    constraint spring_session_attributes_pk
+        primary key (session_primary_id, attribute_name)
+);
+
+-- Indexes for the hot repository queries, see database/migrations/001-hot-query-indexes.sql
+
+create index idx_users_lower_email
+    on users (lower(email));
+
+create index idx_faculty_department
+    on faculty (department);
+
+create index idx_requests_created_by
+    on requests (created_by, created_at desc, id desc);
+
+create index idx_requests_department_queue
+    on requests (assigned_department, created_at desc, id desc)
+    where status <> 'withdrawn';
+
+create index idx_requests_approved_by
+    on requests (approved_by, created_at desc, id desc)
+    where approved_by is not null;
+
+create index idx_comments_request_id
+    on comments (request_id, created_at, id);
+
+create unique index idx_password_reset_token_token
+    on password_reset_token (token);
+
+-- Full-text search over request reasons and comments, see database/migrations/006-full-text-search.sql
+
+create index idx_requests_search
+    on requests using gin (search_vector);
+
+create index idx_comments_search
+    on comments using gin (search_vector);
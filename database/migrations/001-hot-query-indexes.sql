@@ -0,0 +1,45 @@
+-- Indexes for the hot repository queries.
+--
+-- database/init.sql already contains these for new databases; this script brings an existing database up to date.
+-- The indexes are built concurrently so that the tables stay writable, which means this script must not be run
+-- inside a transaction block:
+--
+--   psql "$DB_URL" -f database/migrations/001-hot-query-indexes.sql
+--
+-- Query -> index
+--   UserRepository.findByEmail (LOWER(email) = LOWER(?))             -> idx_users_lower_email
+--   FacultyRepository.findFacultyByDepartment                       -> idx_faculty_department
+--   RequestRepository.findStudentDashboardRequests                  -> idx_requests_created_by
+--   RequestRepository.findFacultyQueue* (department branch)         -> idx_requests_department_queue
+--   RequestRepository.findFacultyQueue* (approver branch)           -> idx_requests_approved_by
+--   Request.comments, comment pages of a request                    -> idx_comments_request_id
+--   PasswordResetTokenRepository.findByToken                        -> idx_password_reset_token_token
+
+create index concurrently if not exists idx_users_lower_email
+    on users (lower(email));
+
+create index concurrently if not exists idx_faculty_department
+    on faculty (department);
+
+create index concurrently if not exists idx_requests_created_by
+    on requests (created_by, created_at desc, id desc);
+
+create index concurrently if not exists idx_requests_department_queue
+    on requests (assigned_department, created_at desc, id desc)
+    where status <> 'withdrawn';
+
+create index concurrently if not exists idx_requests_approved_by
+    on requests (approved_by, created_at desc, id desc)
+    where approved_by is not null;
+
+create index concurrently if not exists idx_comments_request_id
+    on comments (request_id, created_at, id);
+
+create unique index concurrently if not exists idx_password_reset_token_token
+    on password_reset_token (token);
+
+analyze users;
+analyze faculty;
+analyze requests;
+analyze comments;
+analyze password_reset_token;
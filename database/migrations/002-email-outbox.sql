@@ -0,0 +1,28 @@
+-- Outbox for notification emails.
+--
+-- database/init.sql already contains this table for new databases; this script brings an existing database up to date:
+--
+--   psql "$DB_URL" -f database/migrations/002-email-outbox.sql
+--
+-- Emails are inserted in the same transaction as the request change they report on and sent by
+-- EmailOutboxDispatcher, which locks due rows with FOR UPDATE SKIP LOCKED through idx_email_outbox_due.
+
+create table if not exists email_outbox
+(
+    id              bigint generated by default as identity
+        constraint pk_email_outbox
+            primary key,
+    recipient       varchar(255) not null,
+    subject         varchar(255) not null,
+    body            text         not null,
+    status          varchar(16)  not null default 'PENDING',
+    attempts        integer      not null default 0,
+    next_attempt_at timestamp    not null,
+    last_error      text,
+    created_at      timestamp    not null,
+    sent_at         timestamp
+);
+
+create index if not exists idx_email_outbox_due
+    on email_outbox (next_attempt_at, id)
+    where status = 'PENDING';
@@ -0,0 +1,14 @@
+-- Sequence for email_outbox IDs.
+--
+-- database/init.sql already contains this sequence for new databases; this script brings an existing database up to
+-- date:
+--
+--   psql "$DB_URL" -f database/migrations/003-email-outbox-sequence.sql
+--
+-- EmailOutbox takes its IDs from this sequence, 50 at a time, instead of the identity column, so that Hibernate can
+-- batch the inserts of a bulk decision's notifications. The identity column is kept as it is; its default is no
+-- longer used.
+
+create sequence if not exists email_outbox_seq increment by 50;
+
+select setval('email_outbox_seq', coalesce((select max(id) from email_outbox), 0) + 1, false);
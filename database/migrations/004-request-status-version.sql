@@ -0,0 +1,21 @@
+-- Request status state machine and optimistic version.
+--
+-- database/init.sql already contains these columns and constraints for new databases; this script brings an existing
+-- database up to date:
+--
+--   psql "$DB_URL" -f database/migrations/004-request-status-version.sql
+--
+-- Status changes are single conditional updates (RequestRepository.decideOpenRequests and withdrawRequests) that only
+-- match open requests and bump the version, so concurrent decisions on the same request cannot both apply.
+-- The check constraint is added NOT VALID and validated separately so that existing rows are checked without holding
+-- a lock that blocks writes.
+
+alter table requests
+    add column if not exists version integer not null default 0;
+
+alter table requests
+    add constraint requests_status_check
+        check (status in ('open', 'approved', 'rejected', 'withdrawn')) not valid;
+
+alter table requests
+    validate constraint requests_status_check;
@@ -0,0 +1,13 @@
+-- Pooled request ID allocation.
+--
+-- database/init.sql already contains this change for new databases; this script brings an existing database up to
+-- date:
+--
+--   psql "$DB_URL" -f database/migrations/005-request-id-allocation.sql
+--
+-- Request takes its IDs from requests_id_seq 50 at a time, so that inserting many requests, e.g. a bulk import, costs
+-- one sequence call per 50 rows and the inserts can be sent as JDBC batches. Hibernate hands out the 50 values up to
+-- each value it fetches, so the sequence must advance by the same amount. Rows inserted with the column default keep
+-- working; they just skip IDs.
+
+alter sequence requests_id_seq increment by 50;
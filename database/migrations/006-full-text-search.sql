@@ -0,0 +1,31 @@
+-- Full-text search over request reasons and comments.
+--
+-- database/init.sql already contains these columns and indexes for new databases; this script brings an existing
+-- database up to date. The indexes are built concurrently, so this script must not be run inside a transaction block:
+--
+--   psql "$DB_URL" -f database/migrations/006-full-text-search.sql
+--
+-- The search vectors are stored generated columns, so PostgreSQL keeps them up to date on every insert and update
+-- and the application never writes them. Adding a stored generated column rewrites the table under an exclusive
+-- lock; run this script in a maintenance window on large databases.
+--
+-- Query -> index
+--   RequestRepository.searchRequests (reason matches)    -> idx_requests_search
+--   RequestRepository.searchRequests (comment matches)   -> idx_comments_search
+
+alter table requests
+    add column if not exists search_vector tsvector
+        generated always as (to_tsvector('english', coalesce(reason, ''))) stored;
+
+alter table comments
+    add column if not exists search_vector tsvector
+        generated always as (to_tsvector('english', text)) stored;
+
+create index concurrently if not exists idx_requests_search
+    on requests using gin (search_vector);
+
+create index concurrently if not exists idx_comments_search
+    on comments using gin (search_vector);
+
+analyze requests;
+analyze comments;
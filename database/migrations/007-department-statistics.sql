@@ -0,0 +1,67 @@
+-- Incrementally maintained department statistics.
+--
+-- database/init.sql already contains these tables and the bucket function for new databases; this script brings an
+-- existing database up to date and fills the tables from the requests:
+--
+--   psql "$DB_URL" -f database/migrations/007-department-statistics.sql
+--
+-- The application adds to the counters in the same transaction as every request it creates or decides, so the
+-- dashboard reads one row and at most ten histogram rows per department instead of grouping the requests table.
+-- The fill below is the same as DepartmentStatisticsService.rebuild; the application also runs that on startup when
+-- the tables are empty, so this step is optional.
+
+create table if not exists department_statistics
+(
+    department      smallint  not null
+        constraint pk_department_statistics
+            primary key,
+    open_count      bigint    not null default 0,
+    approved_count  bigint    not null default 0,
+    rejected_count  bigint    not null default 0,
+    withdrawn_count bigint    not null default 0,
+    updated_at      timestamp not null default now()
+);
+
+create table if not exists department_decision_latency
+(
+    department smallint not null,
+    bucket     smallint not null,
+    decisions  bigint   not null default 0,
+    constraint pk_department_decision_latency
+        primary key (department, bucket)
+);
+
+create or replace function decision_latency_bucket(latency interval) returns smallint
+    language sql
+    immutable
+as
+$$
+select width_bucket(extract(epoch from latency),
+                    array [3600, 14400, 43200, 86400, 172800, 345600, 604800, 1209600, 2592000]::numeric[])::smallint
+$$;
+
+begin;
+
+lock table requests in share mode;
+
+delete from department_statistics;
+delete from department_decision_latency;
+
+insert into department_statistics (department, open_count, approved_count, rejected_count, withdrawn_count)
+select assigned_department,
+       count(*) filter (where status = 'open'),
+       count(*) filter (where status = 'approved'),
+       count(*) filter (where status = 'rejected'),
+       count(*) filter (where status = 'withdrawn')
+from requests
+group by assigned_department;
+
+insert into department_decision_latency (department, bucket, decisions)
+select assigned_department, decision_latency_bucket(approved_at - created_at), count(*)
+from requests
+where status in ('approved', 'rejected')
+  and approved_at is not null
+  and created_at is not null
+group by 1, 2;
+
+commit;
@@ -0,0 +1,24 @@
+-- Validators for conditional GETs of the request page and the dashboards.
+--
+-- database/init.sql already contains these changes for new databases; this script brings an existing database up to
+-- date:
+--
+--   psql "$DB_URL" -f database/migrations/008-change-stamps.sql
+--
+-- The request page is validated by the version and updated_at of its request, which are now also bumped when a comment
+-- is added; a dashboard is validated by the change stamp of its department or student, bumped in the transaction of
+-- every request that is created or changes status. Missing stamps are created on the first change, so the table
+-- starts empty. The default of updated_at is evaluated once, so the column is added without rewriting the requests table
+-- and existing requests share the time of the migration.
+
+alter table requests
+    add column if not exists updated_at timestamp not null default now();
+
+create table if not exists change_stamps
+(
+    scope      varchar(300) not null
+        constraint pk_change_stamps
+            primary key,
+    version    bigint       not null default 1,
+    changed_at timestamp    not null default now()
+);
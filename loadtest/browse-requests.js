@@ -0,0 +1,58 @@
+// k6 scenario for comparing the platform-thread and virtual-thread modes.
+// Each virtual user is a student or faculty member of database/benchmarks/seed-1m-requests.sql who opens their
+// dashboard and then one of the requests on it, authenticating with HTTP Basic so that no CSRF token is needed.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e USERS=2000 --summary-export results/virtual.json loadtest/browse-requests.js
+
+import http from 'k6/http';
+import encoding from 'k6/encoding';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERS = parseInt(__ENV.USERS || '2000', 10);
+const PASSWORD = __ENV.PASSWORD || 'loadtest';
+
+export const options = {
+    scenarios: {
+        browse: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: USERS },
+                { duration: '5m', target: USERS },
+                { duration: '30s', target: 0 },
+            ],
+            gracefulRampDown: '30s',
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(90)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+// One in ten virtual users is a faculty member, the rest are students
+function credentials() {
+    const email = __VU % 10 === 0
+        ? `faculty${__VU % 30}@example.com`
+        : `student${1 + (__VU % 20000)}@example.com`;
+    return { Authorization: `Basic ${encoding.b64encode(`${email}:${PASSWORD}`)}` };
+}
+
+export default function () {
+    const headers = credentials();
+
+    const dashboard = http.get(`${BASE_URL}/dashboard`, { headers, tags: { page: 'dashboard' } });
+    check(dashboard, { 'dashboard is 200': (r) => r.status === 200 });
+
+    // Open one of the requests linked from the dashboard
+    const links = dashboard.body ? dashboard.body.match(/\/request\/\d+/g) : null;
+    if (links && links.length > 0) {
+        const link = links[Math.floor(Math.random() * links.length)];
+        const request = http.get(`${BASE_URL}${link}`, { headers, tags: { page: 'request' } });
+        check(request, { 'request page is 200': (r) => r.status === 200 });
+    }
+
+    // Think time between page views
+    sleep(1 + Math.random());
+}
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+# Runs loadtest/browse-requests.js against the application once with platform threads and once with virtual threads,
+# restarting the application in between, and prints throughput and latency of both runs side by side.
+#
+# Requires: a database prepared as described in loadtest/README.md, a built target/backend.jar, k6 and jq.
+#
+#   DB_URL=jdbc:postgresql://localhost:5432/bench ./loadtest/compare-thread-modes.sh
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+: "${DB_URL:?Set DB_URL to the JDBC URL of the load test database}"
+DB_USERNAME="${DB_USERNAME:-postgres}"
+DB_PASSWORD="${DB_PASSWORD:-postgres}"
+USERS="${USERS:-2000}"
+PORT="${PORT:-8080}"
+RESULTS_DIR="loadtest/results/$(date +%Y%m%d-%H%M%S)"
+
+mkdir -p "$RESULTS_DIR"
+
+run_mode() {
+  local mode="$1" virtual="$2"
+
+  echo "Starting the application with spring.threads.virtual.enabled=$virtual"
+  SPRING_PROFILES_ACTIVE=prod \
+  SPRING_DATASOURCE_URL="$DB_URL" \
+  SPRING_DATASOURCE_USERNAME="$DB_USERNAME" \
+  SPRING_DATASOURCE_PASSWORD="$DB_PASSWORD" \
+  SPRING_THREADS_VIRTUAL_ENABLED="$virtual" \
+  MAIL_SENDER_USERNAME=loadtest MAIL_SENDER_PASSWORD=loadtest \
+  MAIL_SENDER_HOST=localhost MAIL_SENDER_PORT=1025 MAIL_SENDER_AUTH=false MAIL_SENDER_STARTTLS=false \
+    java -jar target/backend.jar --server.port="$PORT" > "$RESULTS_DIR/$mode-app.log" 2>&1 &
+  local app_pid=$!
+
+  until curl -sf -u faculty0@example.com:loadtest "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if ! kill -0 "$app_pid" 2> /dev/null; then
+      echo "The application failed to start, see $RESULTS_DIR/$mode-app.log" >&2
+      exit 1
+    fi
+    sleep 2
+  done
+
+  echo "Running $USERS virtual users against the $mode mode"
+  k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e USERS="$USERS" \
+    --summary-export "$RESULTS_DIR/$mode.json" loadtest/browse-requests.js || true
+
+  kill "$app_pid"
+  wait "$app_pid" || true
+}
+
+run_mode platform false
+run_mode virtual true
+
+printf '\n%-10s %12s %10s %10s %10s %8s\n' mode 'req/s' 'p50 ms' 'p95 ms' 'p99 ms' errors
+for mode in platform virtual; do
+  jq -r --arg mode "$mode" '[
+      $mode,
+      (.metrics.http_reqs.rate | floor),
+      (.metrics.http_req_duration.med | floor),
+      (.metrics.http_req_duration["p(95)"] | floor),
+      (.metrics.http_req_duration["p(99)"] | floor),
+      ((.metrics.http_req_failed.value * 100 | floor | tostring) + "%")
+    ] | @tsv' "$RESULTS_DIR/$mode.json" | awk -F'\t' '{ printf "%-10s %12s %10s %10s %10s %8s\n", $1, $2, $3, $4, $5, $6 }'
+done
+
+echo
+echo "Raw k6 summaries and application logs are in $RESULTS_DIR"
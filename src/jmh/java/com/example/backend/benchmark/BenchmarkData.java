@@ -0,0 +1,80 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.model.RequestSummary;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Synthetic rows shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    static final String[] TYPES = {"leave_of_absence", "course_registration", "student_housing"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * The columns of a dashboard query row, keyed by the aliases of RequestRepository.SUMMARY_COLUMNS
+     *
+     * @param id The request ID; its remainder by three picks the request type
+     * @return The row
+     */
+    static Map<String, Object> summaryRow(int id) {
+        String type = TYPES[id % TYPES.length];
+        LocalDateTime createdAt = LocalDateTime.of(2024, 9, 1, 8, 0).plusMinutes(id);
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("version", 0);
+        row.put("type", type);
+        row.put("status", "open");
+        row.put("createdAt", createdAt);
+        row.put("startDate", type.equals("leave_of_absence") ? createdAt.toLocalDate().plusDays(7) : null);
+        row.put("endDate", type.equals("leave_of_absence") ? createdAt.toLocalDate().plusDays(30) : null);
+        row.put("courseId", type.equals("course_registration") ? 10000L + id % 5000 : null);
+        row.put("semester", type.equals("course_registration") ? "Fall" : null);
+        row.put("housingType", type.equals("student_housing") ? "Single Room" : null);
+        row.put("duration", type.equals("student_housing") ? "1 Semester" : null);
+        row.put("reason", "Synthetic request " + id);
+        row.put("creatorFirstName", "Student");
+        row.put("creatorLastName", "Number " + id);
+        return row;
+    }
+
+    /**
+     * Request summaries backed by plain fields, so that partitioning is measured without proxy overhead
+     *
+     * @param count The number of summaries
+     * @return The summaries, with the three request types interleaved
+     */
+    static List<RequestSummary> summaries(int count) {
+        List<RequestSummary> summaries = new ArrayList<>(count);
+        for (int id = 0; id < count; id++) {
+            summaries.add(new FieldSummary(summaryRow(id)));
+        }
+        return summaries;
+    }
+
+    /**
+     * A request summary holding its columns in fields
+     */
+    private record FieldSummary(Integer getId, Integer getVersion, String getType, String getStatus,
+                                LocalDateTime getCreatedAt, LocalDate getStartDate, LocalDate getEndDate,
+                                Long getCourseId, String getSemester, String getHousingType, String getDuration,
+                                String getReason, String getCreatorFirstName, String getCreatorLastName) implements RequestSummary {
+
+        private FieldSummary(Map<String, Object> row) {
+            this((Integer) row.get("id"), (Integer) row.get("version"), (String) row.get("type"),
+                    (String) row.get("status"), (LocalDateTime) row.get("createdAt"), (LocalDate) row.get("startDate"),
+                    (LocalDate) row.get("endDate"), (Long) row.get("courseId"), (String) row.get("semester"),
+                    (String) row.get("housingType"), (String) row.get("duration"), (String) row.get("reason"),
+                    (String) row.get("creatorFirstName"), (String) row.get("creatorLastName"));
+        }
+    }
+}
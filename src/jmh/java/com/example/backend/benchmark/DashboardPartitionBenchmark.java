@@ -0,0 +1,69 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.model.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of grouping the dashboard's requests by type.
+ * Compares DashboardRequests.from over request summaries with grouping entity subtypes by instanceof, which is how
+ * the dashboard grouped them before it switched to the summary query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardPartitionBenchmark {
+
+    @Param({"10000"})
+    private int requestCount;
+
+    private List<RequestSummary> summaries;
+    private List<Request> entities;
+
+    @Setup
+    public void setUp() {
+        summaries = BenchmarkData.summaries(requestCount);
+
+        entities = new ArrayList<>(requestCount);
+        for (int id = 0; id < requestCount; id++) {
+            Request request = switch (id % 3) {
+                case 0 -> new LeaveOfAbsenceRequest();
+                case 1 -> new CourseRegistrationRequest();
+                default -> new StudentHousingRequest();
+            };
+            request.setId(id);
+            request.setType(BenchmarkData.TYPES[id % 3]);
+            entities.add(request);
+        }
+    }
+
+    @Benchmark
+    public DashboardRequests summariesByType() {
+        return DashboardRequests.from(summaries);
+    }
+
+    @Benchmark
+    public List<List<Request>> entitiesByInstanceof() {
+        List<Request> courseRequests = new ArrayList<>();
+        List<Request> housingRequests = new ArrayList<>();
+        List<Request> leaveRequests = new ArrayList<>();
+
+        for (Request request : entities) {
+            if (request instanceof CourseRegistrationRequest) {
+                courseRequests.add(request);
+            } else if (request instanceof StudentHousingRequest) {
+                housingRequests.add(request);
+            } else if (request instanceof LeaveOfAbsenceRequest) {
+                leaveRequests.add(request);
+            }
+        }
+
+        return List.of(courseRequests, housingRequests, leaveRequests);
+    }
+}
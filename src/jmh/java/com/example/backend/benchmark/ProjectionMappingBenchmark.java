@@ -0,0 +1,69 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.model.RequestSummary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping query rows to the RequestSummary view.
+ * Spring Data maps each native query row to an interface projection through a proxy backed by the row's columns;
+ * this measures creating those proxies and reading every column once, as rendering a dashboard card does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionMappingBenchmark {
+
+    @Param({"25", "1000"})
+    private int rowCount;
+
+    private final ProjectionFactory projectionFactory = new SpelAwareProxyProjectionFactory();
+
+    private List<Map<String, Object>> rows;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(rowCount);
+        for (int id = 0; id < rowCount; id++) {
+            rows.add(BenchmarkData.summaryRow(id));
+        }
+    }
+
+    @Benchmark
+    public List<RequestSummary> createProjections() {
+        List<RequestSummary> summaries = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            summaries.add(projectionFactory.createProjection(RequestSummary.class, row));
+        }
+        return summaries;
+    }
+
+    @Benchmark
+    public void createAndReadProjections(Blackhole blackhole) {
+        for (Map<String, Object> row : rows) {
+            RequestSummary summary = projectionFactory.createProjection(RequestSummary.class, row);
+            blackhole.consume(summary.getId());
+            blackhole.consume(summary.getType());
+            blackhole.consume(summary.getStatus());
+            blackhole.consume(summary.getCreatedAt());
+            blackhole.consume(summary.getStartDate());
+            blackhole.consume(summary.getEndDate());
+            blackhole.consume(summary.getCourseId());
+            blackhole.consume(summary.getSemester());
+            blackhole.consume(summary.getHousingType());
+            blackhole.consume(summary.getDuration());
+            blackhole.consume(summary.getReason());
+            blackhole.consume(summary.getCreatorName());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.model.CourseRegistrationRequest;
+import com.example.backend.model.LeaveOfAbsenceRequest;
+import com.example.backend.model.StudentHousingRequest;
+import com.example.backend.service.RequestService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating the request forms, for a valid and an invalid form of each type.
+ * The validation methods do not touch the repositories or other services, so the service is built without them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RequestValidationBenchmark {
+
+    private RequestService requestService;
+
+    private LeaveOfAbsenceRequest validLeaveRequest;
+    private LeaveOfAbsenceRequest invalidLeaveRequest;
+    private StudentHousingRequest validHousingRequest;
+    private StudentHousingRequest invalidHousingRequest;
+    private CourseRegistrationRequest validCourseRequest;
+    private CourseRegistrationRequest invalidCourseRequest;
+
+    @Setup
+    public void setUp() {
+        requestService = new RequestService(null, null, null, null, null, null);
+
+        validLeaveRequest = new LeaveOfAbsenceRequest();
+        validLeaveRequest.setStartDate(LocalDate.of(2025, 1, 6));
+        validLeaveRequest.setEndDate(LocalDate.of(2025, 2, 6));
+        invalidLeaveRequest = new LeaveOfAbsenceRequest();
+
+        validHousingRequest = new StudentHousingRequest();
+        validHousingRequest.setHousingType("Single Room");
+        validHousingRequest.setDuration("1 Semester");
+        invalidHousingRequest = new StudentHousingRequest();
+        invalidHousingRequest.setHousingType("");
+        invalidHousingRequest.setDuration(" ");
+
+        validCourseRequest = new CourseRegistrationRequest();
+        validCourseRequest.setCourseId(19002L);
+        validCourseRequest.setSemester("Fall");
+        invalidCourseRequest = new CourseRegistrationRequest();
+        invalidCourseRequest.setSemester("");
+    }
+
+    @Benchmark
+    public boolean validLeaveRequest() {
+        return requestService.validateLeaveRequestForm(new ExtendedModelMap(), validLeaveRequest);
+    }
+
+    @Benchmark
+    public boolean invalidLeaveRequest() {
+        return requestService.validateLeaveRequestForm(new ExtendedModelMap(), invalidLeaveRequest);
+    }
+
+    @Benchmark
+    public boolean validHousingRequest() {
+        return requestService.validateHousingRequestForm(new ExtendedModelMap(), validHousingRequest);
+    }
+
+    @Benchmark
+    public boolean invalidHousingRequest() {
+        return requestService.validateHousingRequestForm(new ExtendedModelMap(), invalidHousingRequest);
+    }
+
+    @Benchmark
+    public boolean validCourseRegistrationRequest() {
+        return requestService.validateCourseRegistrationRequestForm(new ExtendedModelMap(), validCourseRequest);
+    }
+
+    @Benchmark
+    public boolean invalidCourseRegistrationRequest() {
+        return requestService.validateCourseRegistrationRequestForm(new ExtendedModelMap(), invalidCourseRequest);
+    }
+}
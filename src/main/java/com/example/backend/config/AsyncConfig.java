@@ -0,0 +1,14 @@
+package com.example.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * The async configuration class
+ * Runs @Async methods, such as pushing live updates to open dashboards, on the application task executor,
+ * which uses virtual threads when spring.threads.virtual.enabled is set
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
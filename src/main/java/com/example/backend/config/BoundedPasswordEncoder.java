@@ -0,0 +1,116 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link PasswordEncoder} that hashes and verifies passwords on a small pool of its own threads instead of the
+ * request thread. A bcrypt hash keeps a core busy for tens of milliseconds; with the pool, a burst of logins can use at
+ * most the pool's threads and the other pages keep being served. Hashes wait in a bounded queue, and once that is full
+ * further logins are turned away at once instead of piling up behind it.
+ * Publishes the metrics password.hash (tagged with the operation), password.hash.rejected and password.hash.queued.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor hashingExecutor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    /**
+     * Constructor for the bounded password encoder
+     *
+     * @param delegate      The encoder that hashes and verifies the passwords
+     * @param threads       The number of passwords hashed at the same time
+     * @param queueCapacity The number of passwords that may wait for a thread before further ones are rejected
+     * @param meterRegistry The meter registry the metrics are published to
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hashingExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hash-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("password.hash.rejected").register(meterRegistry);
+        Gauge.builder("password.hash.queued", hashingExecutor.getQueue(), BlockingQueue::size).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Check whether a hash was created with other parameters than new ones are; only compares the hash's prefix,
+     * so it runs on the calling thread
+     *
+     * @param encodedPassword The hash
+     * @return Whether the password should be hashed again
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stop the hashing threads
+     */
+    @Override
+    public void destroy() {
+        hashingExecutor.shutdown();
+    }
+
+    /**
+     * Run a hash on the pool and wait for its result
+     *
+     * @param hash The hash
+     * @param <T>  The type of the result
+     * @return The result
+     * @throws AuthenticationServiceException If the queue is full, or the hash failed or was interrupted
+     */
+    private <T> T execute(Callable<T> hash) {
+        Future<T> future;
+        try {
+            future = hashingExecutor.submit(hash);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new AuthenticationServiceException("Too many sign-ins at the moment, please try again shortly", ex);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new AuthenticationServiceException("Password hashing failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing a password", ex);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The cache configuration class
+ * The caches themselves are declared in application.properties and backed by Caffeine,
+ * so that their size and time-to-live are bounded and their hit/miss statistics are published to the metrics registry
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /**
+     * The cache of authenticated users, keyed by lower-case email
+     */
+    public static final String USERS_CACHE = "users";
+
+    /**
+     * The dialect of the cache:key attribute, which caches the rendered markup of template fragments such as
+     * the request cards of the dashboard and the navigation of the sidebar
+     *
+     * @param enabled       Whether fragments are cached, off while templates are reloaded on change
+     * @param maximumSize   The maximum number of cached fragments, the least recently used are evicted
+     * @param meterRegistry The meter registry the cache and render metrics are published to
+     * @return The dialect, picked up by the Thymeleaf template engine
+     */
+    @Bean
+    FragmentCacheDialect fragmentCacheDialect(@Value("${view.fragment-cache.enabled}") boolean enabled,
+                                              @Value("${view.fragment-cache.maximum-size}") long maximumSize,
+                                              MeterRegistry meterRegistry) {
+        Cache<String, String> cache = null;
+        if (enabled) {
+            cache = CaffeineCacheMetrics.monitor(meterRegistry,
+                    Caffeine.newBuilder().maximumSize(maximumSize).recordStats().<String, String>build(), "fragments");
+        }
+        return new FragmentCacheDialect(cache, meterRegistry);
+    }
+}
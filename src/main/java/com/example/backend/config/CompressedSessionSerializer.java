@@ -0,0 +1,80 @@
+package com.example.backend.config;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.serializer.support.SerializationFailedException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Converts session attributes to the bytes stored in the session table and back, with Java serialization compressed by
+ * deflate. Java serialization repeats the class descriptions of every object it writes, which compress well.
+ * The attributes themselves are kept small: the security context holds the user's email and authority names only,
+ * see {@link WebSecurityConfig}.
+ */
+public class CompressedSessionSerializer implements GenericConverter {
+
+    private final ClassLoader classLoader;
+
+    /**
+     * Constructor for the compressed session serializer
+     *
+     * @param classLoader The class loader the classes of the attributes are loaded with
+     */
+    public CompressedSessionSerializer(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public Set<ConvertiblePair> getConvertibleTypes() {
+        return Set.of(new ConvertiblePair(Object.class, byte[].class), new ConvertiblePair(byte[].class, Object.class));
+    }
+
+    @Override
+    public Object convert(Object source, TypeDescriptor sourceType, TypeDescriptor targetType) {
+        if (source == null) {
+            return null;
+        }
+        // Decide by the target type, an attribute that is itself a byte array is serialized too
+        return targetType.getType() == byte[].class ? serialize(source) : deserialize((byte[]) source);
+    }
+
+    /**
+     * Serialize and compress an attribute
+     *
+     * @param attribute The attribute
+     * @return The compressed bytes
+     */
+    private byte[] serialize(Object attribute) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream output = new ObjectOutputStream(new DeflaterOutputStream(bytes))) {
+            output.writeObject(attribute);
+        } catch (IOException e) {
+            throw new SerializationFailedException("Failed to serialize session attribute of " + attribute.getClass(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decompress and deserialize an attribute
+     *
+     * @param bytes The compressed bytes
+     * @return The attribute
+     */
+    private Object deserialize(byte[] bytes) {
+        try (ObjectInputStream input = new ConfigurableObjectInputStream(
+                new InflaterInputStream(new ByteArrayInputStream(bytes)), classLoader)) {
+            return input.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            throw new SerializationFailedException("Failed to deserialize session attribute", e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.standard.StandardDialect;
+
+import java.util.Set;
+
+/**
+ * The Thymeleaf dialect of the cache:key attribute, see {@link FragmentCacheProcessor}.
+ * Templates declare it as xmlns:cache="http://www.thymeleaf.org/extras/cache".
+ */
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+
+    public static final String PREFIX = "cache";
+
+    private final Cache<String, String> cache;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for the fragment cache dialect
+     *
+     * @param cache         The cache of rendered markup, null to render every time
+     * @param meterRegistry The meter registry the render timers are published to
+     */
+    public FragmentCacheDialect(Cache<String, String> cache, MeterRegistry meterRegistry) {
+        // Share the precedence of the standard dialect, so that the processor is ordered among th:each, th:if and th:attr
+        super("Fragment Cache", PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Set<IProcessor> getProcessors(String dialectPrefix) {
+        return Set.of(new FragmentCacheProcessor(dialectPrefix, cache, meterRegistry));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.engine.TemplateManager;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.inline.NoOpInliner;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.element.AbstractAttributeModelProcessor;
+import org.thymeleaf.processor.element.IElementModelStructureHandler;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * Processes the cache:key attribute: the element is rendered once per key and template, and later renders with the same
+ * key write the cached markup instead. The key must change whenever anything the element shows changes, e.g. the
+ * version of the request a card shows, and include anything that differs between viewers, e.g. their role.
+ * <p>
+ * The attribute is processed after th:each, th:if and th:switch, so that it can be placed on an iterated or conditional
+ * element and use the iteration variable in its key, and before every other attribute, which are rendered into the cached
+ * markup. Elements containing forms must not be cached, as their CSRF token belongs to the viewer's session, and the
+ * cached elements must not use [[...]] text inlining, use th:text instead.
+ */
+public class FragmentCacheProcessor extends AbstractAttributeModelProcessor {
+
+    public static final String ATTRIBUTE_NAME = "key";
+    public static final int PRECEDENCE = 450;
+
+    private final Cache<String, String> cache;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for the fragment cache processor
+     *
+     * @param dialectPrefix The prefix of the attribute
+     * @param cache         The cache of rendered markup, keyed by template name and key, null to render every time
+     * @param meterRegistry The meter registry the render timers are published to
+     */
+    public FragmentCacheProcessor(String dialectPrefix, Cache<String, String> cache, MeterRegistry meterRegistry) {
+        super(TemplateMode.HTML, dialectPrefix, null, false, ATTRIBUTE_NAME, true, PRECEDENCE, true);
+        this.cache = cache;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doProcess(ITemplateContext context, IModel model, AttributeName attributeName, String attributeValue,
+                             IElementModelStructureHandler structureHandler) {
+        if (cache == null) {
+            return;
+        }
+        Object key = StandardExpressions.getExpressionParser(context.getConfiguration())
+                .parseExpression(context, attributeValue)
+                .execute(context);
+        if (key == null) {
+            return;
+        }
+
+        String template = context.getTemplateData().getTemplate();
+        String cacheKey = template + "|" + key;
+        String markup = cache.getIfPresent(cacheKey);
+        if (markup == null) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            markup = render(context, model, attributeName);
+            sample.stop(Timer.builder("view.fragment.render")
+                    .description("Time spent rendering a cacheable fragment that was not cached")
+                    .tag("template", template)
+                    .register(meterRegistry));
+            cache.put(cacheKey, markup);
+        }
+
+        // The markup is final, e.g. a reason containing [[...]] must not be inlined as an expression
+        model.reset();
+        model.add(context.getModelFactory().createText(markup));
+        structureHandler.setInliner(NoOpInliner.INSTANCE);
+    }
+
+    /**
+     * Render the element with the current context, as it would have been rendered without the attribute
+     *
+     * @param context       The template context
+     * @param model         The model of the element, before any of its attributes are processed
+     * @param attributeName The name of the cache:key attribute
+     * @return The rendered markup
+     */
+    private String render(ITemplateContext context, IModel model, AttributeName attributeName) {
+        IProcessableElementTag tag = (IProcessableElementTag) model.get(0);
+        IModel element = model.cloneModel();
+        element.replace(0, context.getModelFactory().removeAttribute(tag, attributeName));
+
+        // Every element rendered from the same place of a template has the same source, so it is parsed only once
+        StringWriter source = new StringWriter();
+        try {
+            element.write(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        TemplateManager templateManager = context.getConfiguration().getTemplateManager();
+        TemplateModel templateModel = templateManager.parseString(context.getTemplateData(), source.toString(),
+                tag.getLine(), tag.getCol(), context.getTemplateMode(), true);
+
+        StringWriter markup = new StringWriter();
+        templateManager.process(templateModel, context, markup);
+        return markup.toString();
+    }
+}
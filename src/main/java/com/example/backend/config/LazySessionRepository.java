@@ -0,0 +1,144 @@
+package com.example.backend.config;
+
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Decorates a session repository so that a request which changes nothing in its session writes nothing.
+ * Spring Session records the last access time of a session on every request; it is only passed on once the stored time
+ * is older than the touch interval, so a session may expire up to one interval before its timeout. Sessions whose
+ * attributes, ID, timeout and last access time did not change are not saved at all.
+ *
+ * @param <S> The type of the sessions of the decorated repository
+ */
+public class LazySessionRepository<S extends Session> implements SessionRepository<LazySessionRepository<S>.LazySession> {
+
+    private final SessionRepository<S> delegate;
+    private final Duration touchInterval;
+
+    /**
+     * Constructor for the lazy session repository
+     *
+     * @param delegate      The repository the sessions are stored in
+     * @param touchInterval How old the stored last access time must be before it is updated
+     */
+    public LazySessionRepository(SessionRepository<S> delegate, Duration touchInterval) {
+        this.delegate = delegate;
+        this.touchInterval = touchInterval;
+    }
+
+    @Override
+    public LazySession createSession() {
+        LazySession session = new LazySession(delegate.createSession());
+        session.changed = true;
+        return session;
+    }
+
+    @Override
+    public void save(LazySession session) {
+        if (session.changed) {
+            delegate.save(session.delegate);
+            session.changed = false;
+        }
+    }
+
+    @Override
+    public LazySession findById(String id) {
+        S session = delegate.findById(id);
+        return session != null ? new LazySession(session) : null;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        delegate.deleteById(id);
+    }
+
+    /**
+     * A session of the decorated repository that remembers whether it has to be saved
+     */
+    public class LazySession implements Session {
+
+        private final S delegate;
+        private boolean changed;
+
+        /**
+         * Constructor for the lazy session
+         *
+         * @param delegate The session of the decorated repository
+         */
+        LazySession(S delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getId() {
+            return delegate.getId();
+        }
+
+        @Override
+        public String changeSessionId() {
+            changed = true;
+            return delegate.changeSessionId();
+        }
+
+        @Override
+        public <T> T getAttribute(String attributeName) {
+            return delegate.getAttribute(attributeName);
+        }
+
+        @Override
+        public Set<String> getAttributeNames() {
+            return delegate.getAttributeNames();
+        }
+
+        @Override
+        public void setAttribute(String attributeName, Object attributeValue) {
+            changed = true;
+            delegate.setAttribute(attributeName, attributeValue);
+        }
+
+        @Override
+        public void removeAttribute(String attributeName) {
+            changed = true;
+            delegate.removeAttribute(attributeName);
+        }
+
+        @Override
+        public Instant getCreationTime() {
+            return delegate.getCreationTime();
+        }
+
+        @Override
+        public void setLastAccessedTime(Instant lastAccessedTime) {
+            if (Duration.between(delegate.getLastAccessedTime(), lastAccessedTime).compareTo(touchInterval) >= 0) {
+                changed = true;
+                delegate.setLastAccessedTime(lastAccessedTime);
+            }
+        }
+
+        @Override
+        public Instant getLastAccessedTime() {
+            return delegate.getLastAccessedTime();
+        }
+
+        @Override
+        public void setMaxInactiveInterval(Duration interval) {
+            changed = true;
+            delegate.setMaxInactiveInterval(interval);
+        }
+
+        @Override
+        public Duration getMaxInactiveInterval() {
+            return delegate.getMaxInactiveInterval();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return delegate.isExpired();
+        }
+    }
+}
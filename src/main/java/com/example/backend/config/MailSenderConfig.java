@@ -1,37 +1,66 @@
 package com.example.backend.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import java.time.Duration;
 import java.util.Properties;
 
 @Configuration
 public class MailSenderConfig {
 
+    @Value("${mail.sender.host:smtp.gmail.com}")
+    private String mailSenderHost;
+
+    @Value("${mail.sender.port:587}")
+    private int mailSenderPort;
+
+    @Value("${mail.sender.auth:true}")
+    private boolean mailSenderAuth;
+
+    @Value("${mail.sender.starttls:true}")
+    private boolean mailSenderStarttls;
+
+    @Value("${mail.sender.pool-size:2}")
+    private int mailSenderPoolSize;
+
+    @Value("${mail.sender.max-idle-time:60s}")
+    private Duration mailSenderMaxIdleTime;
+
     @Value("${mail.sender.username}")
     private String mailSenderUsername;
 
     @Value("${mail.sender.password}")
     private String mailSenderPassword;
 
+    /**
+     * The mail sender, keeping a small pool of SMTP connections open between sends
+     *
+     * @param meterRegistry The meter registry the mail metrics are published to
+     * @return The mail sender
+     */
     @Bean
-    JavaMailSender mailSender() {
-        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
-        javaMailSender.setHost("smtp.gmail.com");
-        javaMailSender.setPort(587);
+    JavaMailSender mailSender(MeterRegistry meterRegistry) {
+        PooledJavaMailSender javaMailSender = new PooledJavaMailSender(mailSenderPoolSize, mailSenderMaxIdleTime, meterRegistry);
+        javaMailSender.setHost(mailSenderHost);
+        javaMailSender.setPort(mailSenderPort);
 
         javaMailSender.setUsername(mailSenderUsername);
         javaMailSender.setPassword(mailSenderPassword);
 
         Properties properties = javaMailSender.getJavaMailProperties();
         properties.setProperty("mail.transport.protocol", "smtp");
-        properties.setProperty("mail.smtp.auth", "true");
-        properties.setProperty("mail.smtp.starttls.enable", "true");
-        properties.setProperty("mail.smtp.starttls.required", "true");
+        properties.setProperty("mail.smtp.auth", String.valueOf(mailSenderAuth));
+        properties.setProperty("mail.smtp.starttls.enable", String.valueOf(mailSenderStarttls));
+        properties.setProperty("mail.smtp.starttls.required", String.valueOf(mailSenderStarttls));
+        // Fail fast instead of blocking the outbox dispatcher on a server that stopped answering
+        properties.setProperty("mail.smtp.connectiontimeout", "10000");
+        properties.setProperty("mail.smtp.timeout", "30000");
+        properties.setProperty("mail.smtp.writetimeout", "30000");
 
         return javaMailSender;
     }
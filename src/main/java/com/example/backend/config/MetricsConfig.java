@@ -0,0 +1,59 @@
+package com.example.backend.config;
+
+import com.example.backend.service.LiveUpdateBroadcaster;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * The metrics configuration class
+ * Spring Boot already publishes the HTTP server, repository method, Hikari pool, Hibernate and cache metrics;
+ * this adds the handler tag, the template render timers and the live update gauge. All metrics are scraped from
+ * /actuator/prometheus, see application.properties.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for the metrics configuration
+     *
+     * @param meterRegistry The meter registry
+     */
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The convention of the http.server.requests observations, adding the handler method tag
+     *
+     * @return The observation convention
+     */
+    @Bean
+    HandlerObservationConvention handlerObservationConvention() {
+        return new HandlerObservationConvention();
+    }
+
+    /**
+     * The number of open live update subscriptions
+     *
+     * @param liveUpdateBroadcaster The live update broadcaster
+     * @return The meter binder of the gauge
+     */
+    @Bean
+    MeterBinder liveUpdateMetrics(LiveUpdateBroadcaster liveUpdateBroadcaster) {
+        return registry -> Gauge.builder("live.subscriptions", liveUpdateBroadcaster, LiveUpdateBroadcaster::getSubscriptionCount)
+                .description("Open live update subscriptions")
+                .register(registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ViewRenderTimingInterceptor(meterRegistry));
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link JavaMailSenderImpl} that keeps a small pool of connected, authenticated SMTP transports.
+ * Opening a session costs a TCP connect, the STARTTLS handshake and AUTH; with the pool that cost is paid once per
+ * connection instead of once per send, and a batch passed to {@code send(...)} goes out over a single session.
+ * Publishes the metrics mail.send (per message latency, tagged with the result),
+ * mail.connections (tagged with opened or reused) and mail.connections.idle.
+ * <p>
+ * JavaMail's SMTP transport does its socket I/O inside {@code synchronized} methods, which pins the carrier thread of
+ * a virtual thread for the whole SMTP exchange. Sends requested from a virtual thread are therefore handed to a
+ * small pool of platform threads, one per pooled connection, and the virtual thread parks until they finish.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final BlockingQueue<PooledTransport> idleTransports;
+    private final long maxIdleNanos;
+    private final ExecutorService smtpExecutor;
+
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final Counter connectionsOpened;
+    private final Counter connectionsReused;
+
+    /**
+     * Constructor for the pooled mail sender
+     *
+     * @param poolSize      The maximum number of idle connections kept open
+     * @param maxIdleTime   How long a connection may stay idle before it is closed instead of reused
+     * @param meterRegistry The meter registry the metrics are published to
+     */
+    public PooledJavaMailSender(int poolSize, Duration maxIdleTime, MeterRegistry meterRegistry) {
+        this.idleTransports = new ArrayBlockingQueue<>(poolSize);
+        this.maxIdleNanos = maxIdleTime.toNanos();
+        this.smtpExecutor = Executors.newFixedThreadPool(poolSize, Thread.ofPlatform().name("smtp-io-", 1).daemon(true).factory());
+
+        this.sentTimer = Timer.builder("mail.send").tag("result", "sent").register(meterRegistry);
+        this.failedTimer = Timer.builder("mail.send").tag("result", "failed").register(meterRegistry);
+        this.connectionsOpened = Counter.builder("mail.connections").tag("outcome", "opened").register(meterRegistry);
+        this.connectionsReused = Counter.builder("mail.connections").tag("outcome", "reused").register(meterRegistry);
+        Gauge.builder("mail.connections.idle", idleTransports, BlockingQueue::size).register(meterRegistry);
+    }
+
+    /**
+     * Send the messages over one pooled connection, on a platform thread if called from a virtual thread
+     *
+     * @param mimeMessages     The messages to send
+     * @param originalMessages The messages the mime messages were created from, used as keys of the failed messages
+     * @throws MailException If the connection could not be opened or any message failed to send
+     */
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        if (!Thread.currentThread().isVirtual()) {
+            sendOverPooledTransport(mimeMessages, originalMessages);
+            return;
+        }
+
+        Future<?> future = smtpExecutor.submit(() -> {
+            sendOverPooledTransport(mimeMessages, originalMessages);
+            return null;
+        });
+        try {
+            future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new MailSendException("Mail sending failed", ex.getCause());
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while sending mail", ex);
+        }
+    }
+
+    /**
+     * Send the messages over one pooled connection on the current thread.
+     * Follows {@link JavaMailSenderImpl#doSend}, but borrows the transport from the pool instead of opening one,
+     * and reconnects once if the connection drops in the middle of a batch.
+     *
+     * @param mimeMessages     The messages to send
+     * @param originalMessages The messages the mime messages were created from, used as keys of the failed messages
+     * @throws MailException If the connection could not be opened or any message failed to send
+     */
+    private void sendOverPooledTransport(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+
+        PooledTransport transport;
+        try {
+            transport = borrowTransport();
+        } catch (AuthenticationFailedException ex) {
+            throw new MailAuthenticationException(ex);
+        } catch (MessagingException ex) {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessages[i], ex);
+            }
+            throw new MailSendException("Mail server connection failed", ex, failedMessages);
+        }
+
+        boolean previousFailed = false;
+        for (int i = 0; i < mimeMessages.length; i++) {
+            MimeMessage mimeMessage = mimeMessages[i];
+            Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+
+            // After a failure the connection may have dropped, which would fail the rest of the batch, so replace it
+            if (previousFailed && (transport == null || !transport.isConnected())) {
+                closeQuietly(transport);
+                try {
+                    transport = openTransport();
+                } catch (MessagingException ex) {
+                    transport = null;
+                    failedMessages.put(original, ex);
+                    continue;
+                }
+            }
+
+            long start = System.nanoTime();
+            try {
+                sendMessage(transport.transport, mimeMessage);
+                sentTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                previousFailed = false;
+            } catch (Exception ex) {
+                failedTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                failedMessages.put(original, ex);
+                previousFailed = true;
+            }
+        }
+
+        // A connection that broke at the end of the batch is detected and closed the next time it is borrowed
+
+        releaseTransport(transport);
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Stop the SMTP threads and close all idle connections
+     */
+    @Override
+    public void destroy() {
+        smtpExecutor.shutdown();
+        List<PooledTransport> transports = new ArrayList<>();
+        idleTransports.drainTo(transports);
+        transports.forEach(this::closeQuietly);
+    }
+
+    /**
+     * Take a live connection from the pool, or open a new one if none is idle
+     *
+     * @return The connection
+     * @throws MessagingException If a new connection could not be opened
+     */
+    private PooledTransport borrowTransport() throws MessagingException {
+        PooledTransport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            boolean expired = System.nanoTime() - transport.idleSince > maxIdleNanos;
+            if (!expired && transport.isConnected()) {
+                connectionsReused.increment();
+                return transport;
+            }
+            closeQuietly(transport);
+        }
+
+        return openTransport();
+    }
+
+    /**
+     * Open and authenticate a new connection
+     *
+     * @return The connection
+     * @throws MessagingException If the connection could not be opened
+     */
+    private PooledTransport openTransport() throws MessagingException {
+        Transport transport = connectTransport();
+        connectionsOpened.increment();
+        return new PooledTransport(transport);
+    }
+
+    /**
+     * Return a connection to the pool, or close it if it is broken or the pool is full
+     *
+     * @param transport The connection, may be null
+     */
+    private void releaseTransport(@Nullable PooledTransport transport) {
+        if (transport == null) {
+            return;
+        }
+
+        transport.idleSince = System.nanoTime();
+        if (!idleTransports.offer(transport)) {
+            closeQuietly(transport);
+        }
+    }
+
+    /**
+     * Send one message, filling in the headers the way {@link JavaMailSenderImpl#doSend} does
+     *
+     * @param transport   The connected transport
+     * @param mimeMessage The message
+     * @throws MessagingException If the message could not be sent
+     */
+    private void sendMessage(Transport transport, MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id...
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+
+        Address[] addresses = mimeMessage.getAllRecipients();
+        transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+    }
+
+    /**
+     * Close a connection, logging instead of failing if it is already broken
+     *
+     * @param transport The connection, may be null
+     */
+    private void closeQuietly(@Nullable PooledTransport transport) {
+        if (transport == null) {
+            return;
+        }
+
+        try {
+            transport.transport.close();
+        } catch (MessagingException ex) {
+            log.debug("Failed to close SMTP connection", ex);
+        }
+    }
+
+    /**
+     * An SMTP transport together with the time it was returned to the pool
+     */
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private long idleSince;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+            this.idleSince = System.nanoTime();
+        }
+
+        /**
+         * Check that the server still accepts commands on this connection; sends a NOOP for SMTP
+         *
+         * @return Whether the connection is usable
+         */
+        private boolean isConnected() {
+            return transport.isConnected();
+        }
+    }
+}
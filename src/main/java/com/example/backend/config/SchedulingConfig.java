@@ -0,0 +1,13 @@
+package com.example.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The scheduling configuration class
+ * Enables the background jobs, such as the email outbox dispatcher
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,72 @@
+package com.example.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.session.FlushMode;
+import org.springframework.session.MapSessionRepository;
+import org.springframework.session.SaveMode;
+import org.springframework.session.config.annotation.web.http.EnableSpringHttpSession;
+import org.springframework.session.jdbc.JdbcIndexedSessionRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The session configuration class
+ * HTTP sessions are kept outside the servlet container, so that any app instance behind nginx can serve any request.
+ * The store is chosen by session.store: jdbc keeps them in the spring_session tables, memory keeps them in the heap of
+ * a single instance, for tests. Expired sessions are deleted by {@link com.example.backend.service.ExpiredSessionCleaner}.
+ */
+@Configuration
+@EnableSpringHttpSession
+public class SessionConfig {
+
+    /**
+     * The session store in PostgreSQL
+     *
+     * @param jdbcTemplate       The JDBC template
+     * @param transactionManager The transaction manager
+     * @param timeout            How long a session lives without being used
+     * @param touchInterval      How old the stored last access time of a session must be before a request updates it
+     * @return The session repository
+     */
+    @Bean
+    @ConditionalOnProperty(name = "session.store", havingValue = "jdbc", matchIfMissing = true)
+    LazySessionRepository<?> jdbcSessionRepository(JdbcTemplate jdbcTemplate,
+                                                   PlatformTransactionManager transactionManager,
+                                                   @Value("${server.servlet.session.timeout:30m}") Duration timeout,
+                                                   @Value("${session.touch-interval:1m}") Duration touchInterval) {
+        GenericConversionService conversionService = new GenericConversionService();
+        conversionService.addConverter(new CompressedSessionSerializer(SessionConfig.class.getClassLoader()));
+
+        JdbcIndexedSessionRepository repository =
+                new JdbcIndexedSessionRepository(jdbcTemplate, new TransactionTemplate(transactionManager));
+        repository.setDefaultMaxInactiveInterval(timeout);
+        repository.setConversionService(conversionService);
+        // Only the attributes that were set or removed are written, when the request completes
+        repository.setFlushMode(FlushMode.ON_SAVE);
+        repository.setSaveMode(SaveMode.ON_SET_ATTRIBUTE);
+
+        return new LazySessionRepository<>(repository, touchInterval);
+    }
+
+    /**
+     * The session store in memory, for tests and a single instance
+     *
+     * @param timeout How long a session lives without being used
+     * @return The session repository
+     */
+    @Bean
+    @ConditionalOnProperty(name = "session.store", havingValue = "memory")
+    MapSessionRepository memorySessionRepository(@Value("${server.servlet.session.timeout:30m}") Duration timeout) {
+        MapSessionRepository repository = new MapSessionRepository(new ConcurrentHashMap<>());
+        repository.setDefaultMaxInactiveInterval(timeout);
+        return repository;
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copies the static resources to the directory nginx serves them from, so that no request for them reaches the application.
+ * Every file is written under the content-hash fingerprinted name the templates link to, e.g. /css/sidebar-&lt;md5&gt;.css,
+ * and under its plain name, together with a gzip compressed variant of text files for nginx's gzip_static.
+ * Files are replaced atomically, so several instances may export to the same directory; fingerprinted files of earlier
+ * deployments are kept for pages that still link to them.
+ */
+@Slf4j
+@Component
+public class StaticAssetExporter {
+
+    private static final String STATIC_LOCATION = "classpath:/static/";
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of("css", "js", "svg", "html", "json", "txt");
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final ResourceUrlProvider resourceUrlProvider;
+    private final String exportDir;
+
+    /**
+     * Constructor for the static asset exporter
+     *
+     * @param resourcePatternResolver The resolver of the static resources on the classpath
+     * @param resourceUrlProvider     The provider of the fingerprinted URLs of the static resources
+     * @param exportDir               The directory to export to, empty to serve the static resources from the application
+     */
+    public StaticAssetExporter(ResourcePatternResolver resourcePatternResolver,
+                               ResourceUrlProvider resourceUrlProvider,
+                               @Value("${static.export-dir:}") String exportDir) {
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.resourceUrlProvider = resourceUrlProvider;
+        this.exportDir = exportDir;
+    }
+
+    /**
+     * Export the static resources once the resource handlers are known, before the application reports itself ready
+     *
+     * @throws IOException If a resource cannot be read or written
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void export() throws IOException {
+        if (!StringUtils.hasText(exportDir)) {
+            return;
+        }
+
+        Path root = Path.of(exportDir);
+        int exported = 0;
+        for (Resource resource : resourcePatternResolver.getResources(STATIC_LOCATION + "**/*")) {
+            // Directories are not readable
+            if (!resource.isReadable()) {
+                continue;
+            }
+            String url = resource.getURL().toString();
+            String path = url.substring(url.lastIndexOf("/static/") + "/static".length());
+            String fingerprintedPath = resourceUrlProvider.getForLookupPath(path);
+            if (fingerprintedPath == null) {
+                continue;
+            }
+
+            byte[] content;
+            try (var input = resource.getInputStream()) {
+                content = input.readAllBytes();
+            }
+            byte[] compressed = isCompressible(path) ? gzip(content) : null;
+            for (String exportPath : Set.of(path, fingerprintedPath)) {
+                Path target = root.resolve(exportPath.substring(1));
+                write(target, content);
+                if (compressed != null) {
+                    write(target.resolveSibling(target.getFileName() + ".gz"), compressed);
+                }
+            }
+            exported++;
+        }
+        log.info("Exported {} static resources to {}", exported, root);
+    }
+
+    /**
+     * Check whether a resource is text that compresses well
+     *
+     * @param path The path of the resource
+     * @return True if the resource should be exported with a gzip compressed variant
+     */
+    private boolean isCompressible(String path) {
+        return COMPRESSIBLE_EXTENSIONS.contains(StringUtils.getFilenameExtension(path));
+    }
+
+    /**
+     * Compress content with the best gzip compression, it is compressed once and served many times
+     *
+     * @param content The content
+     * @return The compressed content
+     * @throws IOException If the content cannot be compressed
+     */
+    private byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Write a file by moving a complete temporary file into its place, so that nginx never serves a partly written file
+     *
+     * @param target  The file
+     * @param content The content of the file
+     * @throws IOException If the file cannot be written
+     */
+    private void write(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temporary = Files.createTempFile(target.getParent(), ".export-", ".tmp");
+        try {
+            Files.write(temporary, content);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.backend.config;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * The token configuration class
+ * Scripted clients exchange their credentials once for a short-lived access token and a refresh token at /auth/token,
+ * see {@link com.example.backend.controller.TokenController}. Both are JWTs signed with HMAC-SHA256, so a request with
+ * an access token is authenticated by checking the signature, without a password hash or a database query.
+ */
+@Slf4j
+@Configuration
+public class TokenConfig {
+
+    /**
+     * The claim telling access tokens from refresh tokens, so that one cannot be used as the other
+     */
+    public static final String TOKEN_USE_CLAIM = "token_use";
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+
+    /**
+     * The claim of a refresh token holding the SHA-256 digest of the user's password hash when it was issued
+     */
+    public static final String PASSWORD_FINGERPRINT_CLAIM = "pwd";
+
+    /**
+     * The claim holding the authority names of the user, e.g. STUDENT
+     */
+    public static final String ROLES_CLAIM = "roles";
+
+    /**
+     * The key tokens are signed and verified with
+     *
+     * @param secret The base64 encoded key of at least 256 bits, shared by all app instances; empty for a random key
+     * @return The key
+     */
+    @Bean
+    SecretKey tokenSigningKey(@Value("${token.secret:}") String secret) {
+        byte[] key;
+        if (StringUtils.hasText(secret)) {
+            key = Base64.getDecoder().decode(secret);
+            if (key.length < 32) {
+                throw new IllegalStateException("token.secret must be at least 256 bits, it is " + key.length * 8);
+            }
+        } else {
+            log.warn("No token.secret is set, tokens are signed with a random key and only accepted by this instance");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        }
+        return new SecretKeySpec(key, "HmacSHA256");
+    }
+
+    /**
+     * The encoder signing access and refresh tokens
+     *
+     * @param tokenSigningKey The signing key
+     * @return The JWT encoder
+     */
+    @Bean
+    JwtEncoder jwtEncoder(SecretKey tokenSigningKey) {
+        return new NimbusJwtEncoder(new ImmutableSecret<>(tokenSigningKey));
+    }
+
+    /**
+     * The decoder authenticating requests with a bearer token; accepts access tokens only
+     *
+     * @param tokenSigningKey The signing key
+     * @param issuer          The issuer of the tokens
+     * @return The JWT decoder
+     */
+    @Bean
+    JwtDecoder jwtDecoder(SecretKey tokenSigningKey, @Value("${token.issuer}") String issuer) {
+        return tokenDecoder(tokenSigningKey, issuer, ACCESS_TOKEN);
+    }
+
+    /**
+     * Create a decoder that checks the signature, issuer and expiry of a token and that it is of the given use
+     *
+     * @param tokenSigningKey The signing key
+     * @param issuer          The issuer of the tokens
+     * @param tokenUse        Whether access or refresh tokens are accepted
+     * @return The JWT decoder
+     */
+    public static JwtDecoder tokenDecoder(SecretKey tokenSigningKey, String issuer, String tokenUse) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(tokenSigningKey).macAlgorithm(MacAlgorithm.HS256).build();
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(issuer),
+                new JwtClaimValidator<String>(TOKEN_USE_CLAIM, tokenUse::equals)));
+        return decoder;
+    }
+
+    /**
+     * The converter of a verified access token to the authentication of a request.
+     * The principal's name is the user's email and the authorities are the roles claim, as for a form login.
+     *
+     * @return The JWT authentication converter
+     */
+    @Bean
+    JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+        authoritiesConverter.setAuthoritiesClaimName(ROLES_CLAIM);
+        authoritiesConverter.setAuthorityPrefix("");
+
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(authoritiesConverter);
+        return converter;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.UrlBasedViewResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the rendering of every Thymeleaf template as the view.render timer, tagged with the template name.
+ * The handler has returned when postHandle runs and the view has been rendered when afterCompletion runs,
+ * so the time between the two is the rendering alone, including any lazy loading it triggers.
+ */
+public class ViewRenderTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = ViewRenderTimingInterceptor.class.getName() + ".start";
+    private static final String VIEW_ATTRIBUTE = ViewRenderTimingInterceptor.class.getName() + ".view";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for the view render timing interceptor
+     *
+     * @param meterRegistry The meter registry the timers are published to
+     */
+    public ViewRenderTimingInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        // Redirects and response bodies render no template
+        if (modelAndView == null || modelAndView.getViewName() == null
+                || modelAndView.getViewName().startsWith(UrlBasedViewResolver.REDIRECT_URL_PREFIX)) {
+            return;
+        }
+        request.setAttribute(VIEW_ATTRIBUTE, modelAndView.getViewName());
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        Timer.builder("view.render")
+                .description("Time spent rendering a template")
+                .tag("view", (String) request.getAttribute(VIEW_ATTRIBUTE))
+                .tag("outcome", ex == null ? "success" : "error")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -2,16 +2,28 @@ package com.example.backend.config;
 
 import com.example.backend.repository.UserRepository;
 import com.example.backend.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.util.Map;
+
 /**
  * The web security configuration class
  * This class configures the security settings for the application
@@ -23,21 +35,32 @@ public class WebSecurityConfig {
     /**
      * The filter chain for the security configuration
      *
-     * @param http The http security
+     * @param http                       The http security
+     * @param jwtAuthenticationConverter The converter of bearer tokens to authentications, see {@link TokenConfig}
      * @return The security filter chain
      * @throws Exception If an exception occurs
      */
     @Bean
     @Order(1)
-    SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
         http
                 .authorizeHttpRequests(authorize -> authorize
                         .requestMatchers("/auth/**", "/error", "/css/**", "/js/**", "/images/**").permitAll()
+                        // Scraped by Prometheus and probed by the container health check; not reachable through nginx
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         .requestMatchers("/request/leaveRequest", "/request/courseRegistrationRequest", "/request/housingRequest").hasAuthority("STUDENT")
+                        .requestMatchers("/request/import", "/request/export", "/statistics/**").hasAuthority("FACULTY")
                         .anyRequest().authenticated()
                 )
-                .csrf(Customizer.withDefaults())
+                // A bearer token is sent by a script, never attached by the browser, so it cannot be forged cross-site
+                .csrf(csrf -> csrf
+                        .ignoringRequestMatchers(WebSecurityConfig::hasBearerToken)
+                        .ignoringRequestMatchers("/auth/token", "/auth/token/refresh")
+                )
                 .httpBasic(Customizer.withDefaults())
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter))
+                )
                 .sessionManagement(Customizer.withDefaults())
                 .formLogin(form -> form
                         .loginPage("/auth/login")
@@ -53,6 +76,17 @@ public class WebSecurityConfig {
         return http.build();
     }
 
+    /**
+     * Check whether a request is authenticated with a bearer token
+     *
+     * @param request The request
+     * @return True if the request has an Authorization: Bearer header
+     */
+    private static boolean hasBearerToken(HttpServletRequest request) {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return authorization != null && authorization.regionMatches(true, 0, "Bearer ", 0, 7);
+    }
+
     /**
      * The custom user details service
      *
@@ -65,13 +99,63 @@ public class WebSecurityConfig {
     }
 
     /**
-     * The password encoder
+     * The provider authenticating form logins and HTTP Basic requests against the users table.
+     * The authentication it creates is stored in the HTTP session, so it holds the user's email and authority names
+     * instead of the user entity with its authority entities; controllers load the user by the principal's name.
      *
+     * @param userDetailsService The user details service
+     * @param passwordEncoder    The password encoder
+     * @return The authentication provider
+     */
+    @Bean
+    DaoAuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService,
+                                                     PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setForcePrincipalAsString(true);
+        provider.setAuthoritiesMapper(authorities -> authorities.stream()
+                .map(authority -> new SimpleGrantedAuthority(authority.getAuthority()))
+                .toList());
+        return provider;
+    }
+
+    /**
+     * The authentication manager the token endpoint verifies credentials with
+     *
+     * @param authenticationProvider The authentication provider
+     * @return The authentication manager
+     */
+    @Bean
+    AuthenticationManager authenticationManager(DaoAuthenticationProvider authenticationProvider) {
+        return new ProviderManager(authenticationProvider);
+    }
+
+    /**
+     * The password encoder, hashing new passwords with bcrypt at the configured strength on a bounded pool of threads.
+     * Stored hashes carry the id of their encoder, e.g. {bcrypt}; hashes stored without one are bcrypt hashes.
+     * A hash with a lower strength than the configured one, or without an id, is replaced on the user's next sign-in,
+     * see {@link CustomUserDetailsService#updatePassword}; lowering the strength leaves stronger hashes as they are.
+     *
+     * @param strength      The log rounds of new bcrypt hashes
+     * @param threads       The number of passwords hashed at the same time, 0 for half the available processors
+     * @param queueCapacity The number of passwords that may wait for a hashing thread
+     * @param meterRegistry The meter registry the hashing metrics are published to
      * @return The password encoder
      */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${password.bcrypt.strength:10}") int strength,
+                                    @Value("${password.hashing.threads:0}") int threads,
+                                    @Value("${password.hashing.queue-capacity:64}") int queueCapacity,
+                                    MeterRegistry meterRegistry) {
+        PasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        return new BoundedPasswordEncoder(passwordEncoder, threads, queueCapacity, meterRegistry);
     }
 
 }
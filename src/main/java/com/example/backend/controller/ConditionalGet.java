@@ -0,0 +1,71 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Answers conditional GETs of pages with 304 Not Modified before they are loaded and rendered.
+ * A page is validated by the version of what it shows and by who is looking at it: the viewer's name and role appear
+ * in the sidebar, and the CSRF token in its forms belongs to the viewer's session. Browsers must revalidate every time,
+ * so a page is never shown stale.
+ */
+final class ConditionalGet {
+
+    /**
+     * Pages rendered before a deployment may have been rendered from different templates
+     */
+    private static final Instant DEPLOYED_AT = Instant.now();
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Check the validators of a page against the request, and write them to the response
+     *
+     * @param webRequest   The request
+     * @param viewer       The user viewing the page
+     * @param version      The version of the page's content, e.g. the version of the request it shows
+     * @param lastModified The time the page's content last changed
+     * @return True if the browser's copy is current and the response was completed as 304 Not Modified
+     */
+    static boolean isNotModified(NativeWebRequest webRequest, User viewer, String version, Instant lastModified) {
+        // A page showing a flash message is only valid once, it must not be stored or revalidated
+        if (webRequest.getAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return false;
+        }
+
+        HttpServletResponse response = webRequest.getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+
+        String etag = "W/\"" + version + "-" + Integer.toHexString(viewerHash(webRequest, viewer)) + "\"";
+        Instant modified = lastModified.isAfter(DEPLOYED_AT) ? lastModified : DEPLOYED_AT;
+
+        return webRequest.checkNotModified(etag, modified.toEpochMilli());
+    }
+
+    /**
+     * Hash what a page shows of its viewer, without creating a session for a request that has none
+     *
+     * @param webRequest The request
+     * @param viewer     The user viewing the page
+     * @return The hash
+     */
+    private static int viewerHash(NativeWebRequest webRequest, User viewer) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        HttpSession session = request != null ? request.getSession(false) : null;
+
+        return Objects.hash(viewer.getEmail(), viewer.getFirstName(), viewer.getLastName(), viewer.getClass().getSimpleName(),
+                session != null ? session.getId() : null);
+    }
+}
@@ -1,91 +1,88 @@
 package com.example.backend.controller;
 
 import com.example.backend.model.*;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.ChangeStampService;
+import com.example.backend.service.DepartmentStatisticsService;
 import com.example.backend.service.RequestService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.NativeWebRequest;
 
 import java.security.Principal;
-import java.util.ArrayList;
-import java.util.List;
 
 @Slf4j
 @Controller
 @RequestMapping("/dashboard")
 public class DashboardController {
 
-    private final UserRepository userRepository;
+    private final AuthService authService;
     private final RequestService requestService;
+    private final DepartmentStatisticsService departmentStatisticsService;
+    private final ChangeStampService changeStampService;
 
     /**
      * Constructor for the dashboard controller
      *
-     * @param userRepository The user repository
-     * @param requestService The request service
+     * @param authService                 The auth service
+     * @param requestService              The request service
+     * @param departmentStatisticsService The department statistics service
+     * @param changeStampService          The change stamp service
      */
-    public DashboardController(UserRepository userRepository, RequestService requestService) {
-        this.userRepository = userRepository;
+    public DashboardController(AuthService authService, RequestService requestService,
+                               DepartmentStatisticsService departmentStatisticsService,
+                               ChangeStampService changeStampService) {
+        this.authService = authService;
         this.requestService = requestService;
+        this.departmentStatisticsService = departmentStatisticsService;
+        this.changeStampService = changeStampService;
     }
 
     /**
      * Expose the dashboard page
      *
-     * @param principal The principal
-     * @param model     The model
-     * @return The dashboard page
+     * @param principal  The principal
+     * @param model      The model
+     * @param filter     The filters and page position of the faculty work queue
+     * @param webRequest The request, answered with 304 Not Modified if the dashboard has not changed since the browser loaded it
+     * @return The dashboard page, or null if the request was answered with 304 Not Modified
      */
     @GetMapping
-    public String dashboard(Principal principal, Model model) {
-        String userEmail = principal.getName();
-        User user = userRepository.findByEmail(userEmail).orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + userEmail));
-        model.addAttribute("user", user);
-
-        // If the user is a faculty member, get the department they are assigned to
-        if (user instanceof Faculty faculty) {
-            Department assignedDepartment = faculty.getDepartment();
-
-            List<CourseRegistrationRequest> courseRequests = new ArrayList<>();
-            List<StudentHousingRequest> housingRequests = new ArrayList<>();
-            List<LeaveOfAbsenceRequest> leaveRequests = new ArrayList<>();
-
-            // Get all requests for the faculty member's department
-            List<Request> requests = requestService.getFacultyRequests(userEmail, assignedDepartment);
-            requests.forEach(request -> {
-                if (request instanceof CourseRegistrationRequest) {
-                    courseRequests.add((CourseRegistrationRequest) request);
-                } else if (request instanceof StudentHousingRequest) {
-                    housingRequests.add((StudentHousingRequest) request);
-                } else if (request instanceof LeaveOfAbsenceRequest) {
-                    leaveRequests.add((LeaveOfAbsenceRequest) request);
-                }
-            });
+    public String dashboard(Principal principal, Model model, @ModelAttribute("filter") FacultyQueueFilter filter,
+                            NativeWebRequest webRequest) {
+        User user = authService.getUserByPrincipal(principal);
+
+        // Refreshing an unchanged dashboard costs one row read instead of the queue queries and the render.
+        // The scope is part of the version: a faculty member who moved department may find the new one at the same version.
+        ChangeStamp stamp = changeStampService.getDashboardStamp(user);
+        String version = "dashboard-" + stamp.getScope() + "-" + stamp.getVersion();
+        if (ConditionalGet.isNotModified(webRequest, user, version, stamp.getChangedAt())) {
+            return null;
+        }
 
-            model.addAttribute("courseRequests", courseRequests);
-            model.addAttribute("housingRequests", housingRequests);
-            model.addAttribute("leaveRequests", leaveRequests);
+        model.addAttribute("user", user);
 
-            log.info(leaveRequests.toString());
+        DashboardRequests dashboardRequests;
 
-            // If the user is a student, get all of their requests
+        // Faculty members see one page of their work queue and their department's statistics,
+        // students see all of their own requests
+        if (user instanceof Faculty faculty) {
+            KeysetPage<RequestSummary> queuePage = requestService.getFacultyQueue(faculty, filter);
+            model.addAttribute("queuePage", queuePage);
+            model.addAttribute("statistics", departmentStatisticsService.getStatistics(faculty.getDepartment()));
+            dashboardRequests = DashboardRequests.from(queuePage.getItems());
         } else {
-            List<CourseRegistrationRequest> courseRequests = requestService.getCourseRegistrationRequests(userEmail);
-            model.addAttribute("courseRequests", courseRequests);
-
-            List<StudentHousingRequest> housingRequests = requestService.getStudentHousingRequests(userEmail);
-            model.addAttribute("housingRequests", housingRequests);
-
-            List<LeaveOfAbsenceRequest> leaveRequests = requestService.getLeaveOfAbsenceRequests(userEmail);
-            model.addAttribute("leaveRequests", leaveRequests);
-
-            log.info(leaveRequests.toString());
+            dashboardRequests = requestService.getStudentDashboardRequests(user.getEmail());
         }
 
+        model.addAttribute("courseRequests", dashboardRequests.getCourseRequests());
+        model.addAttribute("housingRequests", dashboardRequests.getHousingRequests());
+        model.addAttribute("leaveRequests", dashboardRequests.getLeaveRequests());
+
         model.addAttribute("activePage", "dashboard");
 
         return "dashboard";
@@ -0,0 +1,43 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.AuthService;
+import com.example.backend.service.LiveUpdateBroadcaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.security.Principal;
+
+@Slf4j
+@Controller
+@RequestMapping("/live")
+public class LiveUpdateController {
+
+    private final AuthService authService;
+    private final LiveUpdateBroadcaster liveUpdateBroadcaster;
+
+    /**
+     * Constructor for the live update controller
+     *
+     * @param authService           The auth service
+     * @param liveUpdateBroadcaster The live update broadcaster
+     */
+    public LiveUpdateController(AuthService authService, LiveUpdateBroadcaster liveUpdateBroadcaster) {
+        this.authService = authService;
+        this.liveUpdateBroadcaster = liveUpdateBroadcaster;
+    }
+
+    /**
+     * Subscribe to the request updates of the user's department, or of their own requests for a student
+     *
+     * @param principal The principal
+     * @return The event stream
+     */
+    @GetMapping(value = "/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter updates(Principal principal) {
+        return liveUpdateBroadcaster.subscribe(authService.getUserByPrincipal(principal));
+    }
+}
@@ -1,17 +1,19 @@
 package com.example.backend.controller;
 
 import com.example.backend.model.*;
-import com.example.backend.repository.CommentRepository;
 import com.example.backend.repository.RequestRepository;
 import com.example.backend.service.AuthService;
-import com.example.backend.service.EmailService;
 import com.example.backend.service.RequestService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
+import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Controller
@@ -21,8 +23,6 @@ public class RequestController {
     private final AuthService authService;
     private final RequestRepository requestRepository;
     private final RequestService requestService;
-    private final CommentRepository commentRepository;
-    private final EmailService emailService;
 
     /**
      * Constructor for the request controller
@@ -30,17 +30,13 @@ public class RequestController {
      * @param authService       The auth service
      * @param requestRepository The request repository
      * @param requestService    The request service
-     * @param commentRepository The comment repository
      */
     public RequestController(AuthService authService,
                              RequestRepository requestRepository,
-                             RequestService requestService,
-                             CommentRepository commentRepository, EmailService emailService) {
+                             RequestService requestService) {
         this.authService = authService;
         this.requestRepository = requestRepository;
         this.requestService = requestService;
-        this.commentRepository = commentRepository;
-        this.emailService = emailService;
     }
 
     /**
@@ -57,24 +53,55 @@ public class RequestController {
     /**
      * Expose the request page
      *
-     * @param requestId The request ID
-     * @param principal The principal
-     * @param model     The model
-     * @return The request page
+     * @param requestId  The request ID
+     * @param principal  The principal
+     * @param model      The model
+     * @param webRequest The request, answered with 304 Not Modified if the request has not changed since the browser loaded its page
+     * @return The request page, or null if the request was answered with 304 Not Modified
      */
     @GetMapping("/{requestId}")
-    public String requestPage(@PathVariable("requestId") Integer requestId, Principal principal, Model model) {
-        addUserToModel(principal, model);
+    public String requestPage(@PathVariable("requestId") Integer requestId, Principal principal, Model model,
+                              NativeWebRequest webRequest) {
+        User user = authService.getUserByPrincipal(principal);
+
+        // Refreshing an unchanged request costs one version lookup instead of loading the request and its comments
+        Optional<RequestVersion> version = requestService.getRequestVersion(requestId);
+        if (version.isPresent() && ConditionalGet.isNotModified(webRequest, user,
+                "request-" + requestId + "-" + version.get().getVersion(), version.get().getUpdatedAt())) {
+            return null;
+        }
+
+        model.addAttribute("user", user);
         model.addAttribute("activePage", "dashboard");
 
-        Request request = requestRepository.getRequestById(requestId);
+        // Load the request with its creator, then the newest page of comments with their authors
+        Request request = requestService.getRequestWithCreator(requestId);
         model.addAttribute("request", request);
+        model.addAttribute("comments", requestService.getCommentPage(requestId, null));
 
         model.addAttribute("newComment", new Comment());
 
         return "request-page";
     }
 
+    /**
+     * Expose a page of comments older than the ones already shown on the request page
+     *
+     * @param requestId The request ID
+     * @param before    The cursor of the oldest comment already shown
+     * @param model     The model
+     * @return The comments fragment
+     */
+    @GetMapping("/{requestId}/comments")
+    public String olderComments(@PathVariable("requestId") Integer requestId,
+                                @RequestParam("before") String before,
+                                Model model) {
+        model.addAttribute("requestId", requestId);
+        model.addAttribute("comments", requestService.getCommentPage(requestId, before));
+
+        return "fragments/comments :: comments";
+    }
+
     /**
      * Create a new comment
      *
@@ -95,11 +122,8 @@ public class RequestController {
             return "redirect:/request/" + requestId;
         }
 
-        comment.setRequest(request);
         User user = authService.getUserByPrincipal(principal);
-        comment.setUser(user);
-
-        commentRepository.save(comment);
+        requestService.addComment(request, user, comment);
 
         return "redirect:/request/" + requestId;
     }
@@ -116,25 +140,9 @@ public class RequestController {
                                   Principal principal) {
 
         User user = authService.getUserByPrincipal(principal);
+        StatusChangeResult result = requestService.updateRequestStatus(user, requestId, RequestStatus.WITHDRAWN);
 
-        // If the user is a faculty member, redirect to the request page
-        if (user instanceof Faculty) {
-            return "redirect:/request/" + requestId + "?error=unauthorized";
-        }
-
-        Request request = requestRepository.getRequestById(requestId);
-
-        // If the request does not exist, redirect to the request page
-        if (request == null) {
-            return "redirect:/request/" + requestId;
-        }
-
-        request.setStatus("withdrawn");
-        requestRepository.save(request);
-
-        emailService.sendRequestStatusChangeToStudent(request);
-
-        return "redirect:/request/" + requestId;
+        return redirectAfterStatusChange(requestId, result);
     }
 
     /**
@@ -149,25 +157,9 @@ public class RequestController {
                                  Principal principal) {
 
         User user = authService.getUserByPrincipal(principal);
+        StatusChangeResult result = requestService.updateRequestStatus(user, requestId, RequestStatus.APPROVED);
 
-        // If the user is a student, redirect to the request page
-        if (user instanceof Student) {
-            return "redirect:/request/" + requestId + "?error=unauthorized";
-        }
-
-        Request request = requestRepository.getRequestById(requestId);
-
-        // If the request does not exist, redirect to the request page
-        if (request == null) {
-            return "redirect:/request/" + requestId;
-        }
-
-        request.setStatus("approved");
-        requestRepository.save(request);
-
-        emailService.sendRequestStatusChangeToStudent(request);
-
-        return "redirect:/request/" + requestId;
+        return redirectAfterStatusChange(requestId, result);
     }
 
     /**
@@ -182,25 +174,53 @@ public class RequestController {
                                 Principal principal) {
 
         User user = authService.getUserByPrincipal(principal);
+        StatusChangeResult result = requestService.updateRequestStatus(user, requestId, RequestStatus.REJECTED);
 
-        // If the user is a student, redirect to the request page
-        if (user instanceof Student) {
-            return "redirect:/request/" + requestId + "?error=unauthorized";
-        }
-
-        Request request = requestRepository.getRequestById(requestId);
+        return redirectAfterStatusChange(requestId, result);
+    }
 
-        // If the request does not exist, redirect to the request page
-        if (request == null) {
-            return "redirect:/request/" + requestId;
-        }
+    /**
+     * Redirect to the request page after a status change, telling the user why the change did not apply
+     *
+     * @param requestId The request ID
+     * @param result    The result of the status change
+     * @return The redirect to the request page
+     */
+    private String redirectAfterStatusChange(Integer requestId, StatusChangeResult result) {
+        return switch (result) {
+            case CHANGED, NOT_FOUND -> "redirect:/request/" + requestId;
+            case ALREADY_DECIDED -> "redirect:/request/" + requestId + "?error=alreadyDecided";
+            case NOT_ALLOWED -> "redirect:/request/" + requestId + "?error=unauthorized";
+        };
+    }
 
-        request.setStatus("rejected");
-        requestRepository.save(request);
+    /**
+     * Apply one decision to all selected requests
+     *
+     * @param requestIds         The IDs of the selected requests
+     * @param status             The new status
+     * @param principal          The principal
+     * @param redirectAttributes The message shown on the dashboard
+     * @return The redirect to the dashboard
+     */
+    @PostMapping("/bulk")
+    public String bulkUpdateStatus(@RequestParam(value = "requestIds", required = false) List<Integer> requestIds,
+                                   @RequestParam("status") RequestStatus status,
+                                   Principal principal,
+                                   RedirectAttributes redirectAttributes) {
 
-        emailService.sendRequestStatusChangeToStudent(request);
+        User user = authService.getUserByPrincipal(principal);
+        List<Integer> selected = requestIds == null ? List.of() : requestIds;
+
+        try {
+            int updated = requestService.bulkUpdateStatus(user, selected, status);
+            redirectAttributes.addFlashAttribute("successMessage",
+                    updated + " of " + selected.size() + " selected requests " + status.getValue() + ".");
+        } catch (IllegalArgumentException e) {
+            redirectAttributes.addFlashAttribute("errorMessage", e.getMessage());
+        }
 
-        return "redirect:/request/" + requestId;
+        return "redirect:/dashboard";
     }
 
     /**
@@ -253,13 +273,10 @@ public class RequestController {
 
         leaveOfAbsenceRequest.setCreatedBy(user);
         leaveOfAbsenceRequest.setAssignedDepartment(Department.STUDENT_AFFAIRS);
-        leaveOfAbsenceRequest.setStatus("open");
+        leaveOfAbsenceRequest.setStatus(RequestStatus.OPEN);
         leaveOfAbsenceRequest.setType("leave_of_absence");
 
-        requestRepository.save(leaveOfAbsenceRequest);
-
-        emailService.sendRequestCreationConfirmationEmail(leaveOfAbsenceRequest, user.getEmail());
-        emailService.sendRequestCreationEmailToFaculty(leaveOfAbsenceRequest, user);
+        requestService.createRequest(leaveOfAbsenceRequest, user);
 
         return "redirect:/dashboard";
     }
@@ -314,13 +331,10 @@ public class RequestController {
 
         studentHousingRequest.setCreatedBy(user);
         studentHousingRequest.setAssignedDepartment(Department.HOUSING_OFFICE);
-        studentHousingRequest.setStatus("open");
+        studentHousingRequest.setStatus(RequestStatus.OPEN);
         studentHousingRequest.setType("student_housing");
 
-        requestRepository.save(studentHousingRequest);
-
-        emailService.sendRequestCreationConfirmationEmail(studentHousingRequest, user.getEmail());
-        emailService.sendRequestCreationEmailToFaculty(studentHousingRequest, user);
+        requestService.createRequest(studentHousingRequest, user);
 
         return "redirect:/dashboard";
     }
@@ -375,13 +389,10 @@ public class RequestController {
 
         courseRegistrationRequest.setCreatedBy(user);
         courseRegistrationRequest.setAssignedDepartment(Department.REGISTRARS_OFFICE);
-        courseRegistrationRequest.setStatus("open");
+        courseRegistrationRequest.setStatus(RequestStatus.OPEN);
         courseRegistrationRequest.setType("course_registration");
 
-        requestRepository.save(courseRegistrationRequest);
-
-        emailService.sendRequestCreationConfirmationEmail(courseRegistrationRequest, user.getEmail());
-        emailService.sendRequestCreationEmailToFaculty(courseRegistrationRequest, user);
+        requestService.createRequest(courseRegistrationRequest, user);
 
         return "redirect:/dashboard";
     }
@@ -0,0 +1,76 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.ExportFormat;
+import com.example.backend.model.Faculty;
+import com.example.backend.model.User;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.RequestExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.security.Principal;
+import java.time.LocalDate;
+
+@Slf4j
+@Controller
+@RequestMapping("/request/export")
+public class RequestExportController {
+
+    private final AuthService authService;
+    private final RequestExportService requestExportService;
+
+    /**
+     * Constructor for the request export controller
+     *
+     * @param authService          The auth service
+     * @param requestExportService The request export service
+     */
+    public RequestExportController(AuthService authService, RequestExportService requestExportService) {
+        this.authService = authService;
+        this.requestExportService = requestExportService;
+    }
+
+    /**
+     * Download the requests of the faculty member's department created in a date range.
+     * The file is streamed to the client while it is read from the database.
+     *
+     * @param from      The first day, inclusive
+     * @param to        The last day, inclusive
+     * @param format    The file format
+     * @param principal The principal
+     * @return The export file
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportRequests(@RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                @RequestParam(value = "format", defaultValue = "CSV") ExportFormat format,
+                                                                Principal principal) {
+
+        User user = authService.getUserByPrincipal(principal);
+
+        // Only faculty members export, and only the requests of their own department
+        if (!(user instanceof Faculty faculty)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String filename = faculty.getDepartment().name().toLowerCase() + "-requests-" + from + "-to-" + to + "." + format.getExtension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(output -> requestExportService.exportDepartmentRequests(faculty.getDepartment(), from, to, format, output));
+    }
+}
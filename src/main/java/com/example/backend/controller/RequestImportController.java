@@ -0,0 +1,77 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.ImportReport;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.RequestImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+
+@Slf4j
+@Controller
+@RequestMapping("/request/import")
+public class RequestImportController {
+
+    private final AuthService authService;
+    private final RequestImportService requestImportService;
+
+    /**
+     * Constructor for the request import controller
+     *
+     * @param authService          The auth service
+     * @param requestImportService The request import service
+     */
+    public RequestImportController(AuthService authService, RequestImportService requestImportService) {
+        this.authService = authService;
+        this.requestImportService = requestImportService;
+    }
+
+    /**
+     * Expose the request import page
+     *
+     * @param principal The principal
+     * @param model     The model
+     * @return The request import page
+     */
+    @GetMapping
+    public String importForm(Principal principal, Model model) {
+        model.addAttribute("user", authService.getUserByPrincipal(principal));
+        model.addAttribute("activePage", "requestImport");
+
+        return "request-import";
+    }
+
+    /**
+     * Import the requests of an uploaded CSV or JSON file and show the report
+     *
+     * @param file      The uploaded file, read as JSON if its name ends with .json or .ndjson and as CSV otherwise
+     * @param principal The principal
+     * @param model     The model
+     * @return The request import page with the report
+     * @throws IOException If the upload cannot be read
+     */
+    @PostMapping
+    public String importRequests(@RequestParam("file") MultipartFile file, Principal principal, Model model) throws IOException {
+        model.addAttribute("user", authService.getUserByPrincipal(principal));
+        model.addAttribute("activePage", "requestImport");
+
+        String name = file.getOriginalFilename() == null ? "" : file.getOriginalFilename().toLowerCase();
+        try (InputStream input = file.getInputStream()) {
+            ImportReport report = name.endsWith(".json") || name.endsWith(".ndjson")
+                    ? requestImportService.importJson(input)
+                    : requestImportService.importCsv(input);
+            model.addAttribute("report", report);
+        }
+
+        return "request-import";
+    }
+}
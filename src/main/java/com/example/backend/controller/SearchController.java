@@ -0,0 +1,54 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.User;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.RequestService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.security.Principal;
+
+@Slf4j
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+    private final AuthService authService;
+    private final RequestService requestService;
+
+    /**
+     * Constructor for the search controller
+     *
+     * @param authService    The auth service
+     * @param requestService The request service
+     */
+    public SearchController(AuthService authService, RequestService requestService) {
+        this.authService = authService;
+        this.requestService = requestService;
+    }
+
+    /**
+     * Expose the search page with one page of the requests matching the search text
+     *
+     * @param query     The search text, none shows an empty search page
+     * @param page      The number of the page, starting at 0
+     * @param principal The principal
+     * @param model     The model
+     * @return The search page
+     */
+    @GetMapping
+    public String search(@RequestParam(name = "q", required = false) String query,
+                         @RequestParam(defaultValue = "0") int page,
+                         Principal principal, Model model) {
+        User user = authService.getUserByPrincipal(principal);
+        model.addAttribute("user", user);
+        model.addAttribute("results", requestService.searchRequests(user, query, page));
+        model.addAttribute("activePage", "search");
+
+        return "search";
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.DepartmentStatisticsReport;
+import com.example.backend.model.Faculty;
+import com.example.backend.model.User;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.DepartmentStatisticsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+import java.security.Principal;
+
+@Slf4j
+@Controller
+@RequestMapping("/statistics")
+public class StatisticsController {
+
+    private final AuthService authService;
+    private final DepartmentStatisticsService departmentStatisticsService;
+
+    /**
+     * Constructor for the statistics controller
+     *
+     * @param authService                 The auth service
+     * @param departmentStatisticsService The department statistics service
+     */
+    public StatisticsController(AuthService authService, DepartmentStatisticsService departmentStatisticsService) {
+        this.authService = authService;
+        this.departmentStatisticsService = departmentStatisticsService;
+    }
+
+    /**
+     * Get the statistics of the faculty member's department as JSON
+     *
+     * @param principal The principal
+     * @return The statistics, or forbidden for students
+     */
+    @GetMapping
+    public ResponseEntity<DepartmentStatisticsReport> statistics(Principal principal) {
+        User user = authService.getUserByPrincipal(principal);
+        if (!(user instanceof Faculty faculty)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        return ResponseEntity.ok(departmentStatisticsService.getStatistics(faculty.getDepartment()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.TokenResponse;
+import com.example.backend.service.TokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Map;
+
+/**
+ * Issues tokens to scripted clients, which then send "Authorization: Bearer &lt;access_token&gt;" instead of their
+ * credentials, so their password is verified once per token instead of on every call.
+ * Requests with a bearer token are not tied to a session and need no CSRF token.
+ */
+@Slf4j
+@Controller
+@RequestMapping("/auth/token")
+public class TokenController {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    /**
+     * Constructor for the token controller
+     *
+     * @param authenticationManager The authentication manager verifying the credentials
+     * @param tokenService          The token service
+     */
+    public TokenController(AuthenticationManager authenticationManager, TokenService tokenService) {
+        this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Exchange a user's credentials for tokens
+     *
+     * @param username The email of the user
+     * @param password The password of the user
+     * @return The access and refresh tokens
+     */
+    @PostMapping
+    public ResponseEntity<TokenResponse> token(@RequestParam String username, @RequestParam String password) {
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(username, password));
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(tokenService.issueTokens(authentication));
+    }
+
+    /**
+     * Exchange a refresh token for new tokens; the refresh token given keeps being accepted until it expires or the
+     * user's password changes
+     *
+     * @param refreshToken The refresh token
+     * @return The access and refresh tokens
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenResponse> refresh(@RequestParam("refresh_token") String refreshToken) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(tokenService.refreshTokens(refreshToken));
+    }
+
+    /**
+     * Answer failed authentications with an OAuth 2.0 error instead of the error page
+     *
+     * @param ex The authentication exception
+     * @return Service unavailable if the password could not be checked right now, e.g. too many sign-ins are in progress,
+     * otherwise unauthorized
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Map<String, String>> authenticationFailed(AuthenticationException ex) {
+        if (ex instanceof AuthenticationServiceException) {
+            log.warn("Token request failed: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "temporarily_unavailable"));
+        }
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "invalid_grant"));
+    }
+}
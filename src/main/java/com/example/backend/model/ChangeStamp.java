@@ -0,0 +1,55 @@
+package com.example.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * A counter that is bumped whenever the content of a dashboard changes, so that a browser asking whether its copy of the
+ * dashboard is still current can be answered by reading this one row
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "change_stamps")
+public class ChangeStamp {
+
+    @Id
+    @Column(nullable = false, length = 300)
+    private String scope;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    /**
+     * The scope of the dashboards of a department's faculty members
+     *
+     * @param department The department
+     * @return The scope
+     */
+    public static String departmentScope(Department department) {
+        return "department:" + department.name();
+    }
+
+    /**
+     * The scope of a student's dashboard
+     *
+     * @param email The email of the student
+     * @return The scope
+     */
+    public static String studentScope(String email) {
+        return "student:" + email.toLowerCase();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a comment with its author's name joined in
+ */
+public interface CommentView {
+
+    Long getId();
+
+    String getText();
+
+    LocalDateTime getCreatedAt();
+
+    String getAuthorFirstName();
+
+    String getAuthorLastName();
+
+    /**
+     * The full name of the comment's author
+     *
+     * @return The author's first and last name
+     */
+    default String getAuthorName() {
+        return getAuthorFirstName() + " " + getAuthorLastName();
+    }
+}
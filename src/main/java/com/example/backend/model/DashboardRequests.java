@@ -0,0 +1,40 @@
+package com.example.backend.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The requests shown on the dashboard, grouped by request type
+ */
+@Getter
+public class DashboardRequests {
+
+    private final List<RequestSummary> courseRequests = new ArrayList<>();
+    private final List<RequestSummary> housingRequests = new ArrayList<>();
+    private final List<RequestSummary> leaveRequests = new ArrayList<>();
+
+    /**
+     * Group request summaries by their type
+     *
+     * @param summaries The request summaries returned by the dashboard query
+     * @return The grouped requests
+     */
+    public static DashboardRequests from(List<RequestSummary> summaries) {
+        DashboardRequests dashboardRequests = new DashboardRequests();
+
+        for (RequestSummary summary : summaries) {
+            switch (summary.getType()) {
+                case "course_registration" -> dashboardRequests.courseRequests.add(summary);
+                case "student_housing" -> dashboardRequests.housingRequests.add(summary);
+                case "leave_of_absence" -> dashboardRequests.leaveRequests.add(summary);
+                default -> {
+                    // Unknown request types are not shown on the dashboard
+                }
+            }
+        }
+
+        return dashboardRequests;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.model;
+
+/**
+ * A request changed by a status update, as returned by the update itself
+ */
+public interface DecidedRequest {
+
+    Integer getId();
+
+    String getCreatedBy();
+
+    /**
+     * The ordinal of the department the request is assigned to
+     *
+     * @return The department ordinal
+     */
+    Integer getAssignedDepartment();
+}
@@ -0,0 +1,134 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How long a department took to approve or reject its requests, counted in fixed buckets.
+ * Bucket i holds the decisions that took less than UPPER_BOUNDS[i] and at least the bound before it;
+ * the last bucket holds everything from the last bound on. The database assigns the buckets with the
+ * decision_latency_bucket function, whose bounds must match these.
+ */
+public class DecisionLatencyHistogram {
+
+    public static final List<Duration> UPPER_BOUNDS = List.of(
+            Duration.ofHours(1), Duration.ofHours(4), Duration.ofHours(12), Duration.ofDays(1), Duration.ofDays(2),
+            Duration.ofDays(4), Duration.ofDays(7), Duration.ofDays(14), Duration.ofDays(30));
+
+    public static final int BUCKET_COUNT = UPPER_BOUNDS.size() + 1;
+
+    private final long[] decisions = new long[BUCKET_COUNT];
+
+    /**
+     * Build a histogram from the stored bucket counts
+     *
+     * @param counts The counts of the buckets that have decisions, in any order
+     * @return The histogram
+     */
+    public static DecisionLatencyHistogram of(List<? extends LatencyBucketCount> counts) {
+        DecisionLatencyHistogram histogram = new DecisionLatencyHistogram();
+        for (LatencyBucketCount count : counts) {
+            int bucket = Math.max(0, Math.min(count.getBucket(), BUCKET_COUNT - 1));
+            histogram.decisions[bucket] += count.getDecisions();
+        }
+        return histogram;
+    }
+
+    /**
+     * The total number of decisions
+     *
+     * @return The number of decisions
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long count : decisions) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * All buckets in order, including the empty ones
+     *
+     * @return The buckets
+     */
+    public List<Bucket> getBuckets() {
+        List<Bucket> buckets = new ArrayList<>(BUCKET_COUNT);
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.add(bucket(i));
+        }
+        return buckets;
+    }
+
+    /**
+     * The bucket that holds a percentile of the decision times, so e.g. a percentile of 0.9 tells within how long
+     * nine out of ten decisions were made
+     *
+     * @param percentile The percentile, between 0 and 1
+     * @return The bucket, or null if there are no decisions
+     */
+    public Bucket percentile(double percentile) {
+        long total = getTotal();
+        if (total == 0) {
+            return null;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += decisions[i];
+            if (seen >= rank) {
+                return bucket(i);
+            }
+        }
+        return bucket(BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Describe one bucket
+     *
+     * @param index The index of the bucket
+     * @return The bucket
+     */
+    private Bucket bucket(int index) {
+        if (index == BUCKET_COUNT - 1) {
+            Duration lowerBound = UPPER_BOUNDS.get(index - 1);
+            return new Bucket(null, "after " + describe(lowerBound) + " or more", decisions[index]);
+        }
+
+        Duration upperBound = UPPER_BOUNDS.get(index);
+        return new Bucket(upperBound.toHours(), "within " + describe(upperBound), decisions[index]);
+    }
+
+    /**
+     * Write a bound as hours or days
+     *
+     * @param duration The bound
+     * @return The bound in words
+     */
+    private static String describe(Duration duration) {
+        if (duration.toHours() < 24) {
+            return duration.toHours() == 1 ? "1 hour" : duration.toHours() + " hours";
+        }
+        return duration.toDays() == 1 ? "1 day" : duration.toDays() + " days";
+    }
+
+    /**
+     * One bucket of the histogram
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Bucket {
+
+        /**
+         * The exclusive upper bound of the bucket in hours, null for the last bucket
+         */
+        private final Long upperBoundHours;
+        private final String label;
+        private final long decisions;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * The request counts of a department by status.
+ * The counters are added to in the same transaction as every request that is created or changes status,
+ * see DepartmentStatisticsRepository, so reading them never scans the requests table.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "department_statistics")
+public class DepartmentStatistics {
+
+    @Id
+    @Column(name = "department", nullable = false)
+    private Department department;
+
+    @Column(nullable = false)
+    private long openCount;
+
+    @Column(nullable = false)
+    private long approvedCount;
+
+    @Column(nullable = false)
+    private long rejectedCount;
+
+    @Column(nullable = false)
+    private long withdrawnCount;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,47 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The statistics of a department as shown on the faculty dashboard and returned as JSON
+ */
+@Getter
+@AllArgsConstructor
+public class DepartmentStatisticsReport {
+
+    private final Department department;
+    private final long open;
+    private final long approved;
+    private final long rejected;
+    private final long withdrawn;
+    private final long decisions;
+
+    /**
+     * The buckets holding the median, 90th and 99th percentile decision times; null without decisions
+     */
+    private final DecisionLatencyHistogram.Bucket medianDecisionTime;
+    private final DecisionLatencyHistogram.Bucket p90DecisionTime;
+    private final DecisionLatencyHistogram.Bucket p99DecisionTime;
+    private final List<DecisionLatencyHistogram.Bucket> decisionTimes;
+
+    /**
+     * Build the report of a department
+     *
+     * @param department The department
+     * @param statistics The counters of the department, or null if it has no requests yet
+     * @param histogram  The decision times of the department
+     * @return The report
+     */
+    public static DepartmentStatisticsReport of(Department department, DepartmentStatistics statistics,
+                                                DecisionLatencyHistogram histogram) {
+        DepartmentStatistics counts = statistics != null ? statistics : new DepartmentStatistics();
+
+        return new DepartmentStatisticsReport(department, counts.getOpenCount(), counts.getApprovedCount(),
+                counts.getRejectedCount(), counts.getWithdrawnCount(), histogram.getTotal(),
+                histogram.percentile(0.5), histogram.percentile(0.9), histogram.percentile(0.99),
+                histogram.getBuckets());
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.model;
+
+import lombok.Getter;
+
+/**
+ * The file formats requests can be exported in, with their content type and file extension
+ */
+@Getter
+public enum ExportFormat {
+    CSV("text/csv", "csv"), NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.backend.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * The filters and page position of the faculty work queue, bound from the dashboard's query parameters
+ */
+@Getter
+@Setter
+public class FacultyQueueFilter {
+
+    public static final int DEFAULT_PAGE_SIZE = 25;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private String status;
+    private String type;
+    private String after;
+    private String before;
+    private Integer size;
+
+    /**
+     * The requested page size, bounded to a sensible range
+     *
+     * @return The page size
+     */
+    public int getPageSize() {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.backend.model;
+
+/**
+ * Read-only view of the department a faculty member reviews requests for
+ */
+public interface FacultyRoute {
+
+    String getEmail();
+
+    Department getDepartment();
+}
@@ -0,0 +1,79 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a bulk request import: how many rows were imported and why the others were rejected.
+ * Only the first {@link #MAX_REPORTED_ERRORS} rejected rows are listed, the count covers all of them.
+ */
+@Getter
+public class ImportReport {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int imported;
+    private int rejected;
+    private final List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Why the import stopped before the end of the file, or null if the whole file was read
+     */
+    private String failure;
+
+    /**
+     * Count rows that were imported
+     *
+     * @param count The number of rows
+     */
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    /**
+     * Record a rejected row
+     *
+     * @param row    The number of the row in the file, starting at 1 for the first data row
+     * @param errors The error message of each invalid field
+     */
+    public void addRejected(long row, Map<String, String> errors) {
+        rejected++;
+        if (this.errors.size() < MAX_REPORTED_ERRORS) {
+            this.errors.add(new RowError(row, List.copyOf(errors.values())));
+        }
+    }
+
+    /**
+     * Record that the rest of the file could not be read
+     *
+     * @param failure The reason
+     */
+    public void fail(String failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * Whether some rejected rows are not listed
+     *
+     * @return True if more rows were rejected than are listed
+     */
+    public boolean isTruncated() {
+        return rejected > errors.size();
+    }
+
+    /**
+     * The errors of one rejected row
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+
+        private final long row;
+        private final List<String> messages;
+
+    }
+}
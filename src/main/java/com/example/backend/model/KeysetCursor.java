@@ -0,0 +1,77 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * A position in a list ordered by creation time and ID, used for keyset pagination.
+ * Cursors are handed to the browser as opaque URL-safe tokens.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    /**
+     * Create a cursor pointing at a request summary
+     *
+     * @param summary The request summary
+     * @return The cursor
+     */
+    public static KeysetCursor of(RequestSummary summary) {
+        return new KeysetCursor(summary.getCreatedAt(), summary.getId().longValue());
+    }
+
+    /**
+     * Create a cursor pointing at a comment
+     *
+     * @param comment The comment
+     * @return The cursor
+     */
+    public static KeysetCursor of(CommentView comment) {
+        return new KeysetCursor(comment.getCreatedAt(), comment.getId());
+    }
+
+    /**
+     * Encode the cursor as a URL-safe token
+     *
+     * @return The token
+     */
+    public String encode() {
+        String value = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token created by {@link #encode()}
+     *
+     * @param token The token
+     * @return The cursor, or null if the token is blank or not a valid cursor, so that a link with a cursor that was
+     * altered by hand shows the first page instead of failing
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = value.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(value.substring(0, separatorIndex)),
+                    Long.valueOf(value.substring(separatorIndex + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
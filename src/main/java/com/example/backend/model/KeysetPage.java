@@ -0,0 +1,22 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list, with the cursors of the neighbouring pages.
+ * A cursor is null when there is no page in that direction.
+ *
+ * @param <T> The type of the items on the page
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private final List<T> items;
+    private final String previousCursor;
+    private final String nextCursor;
+
+}
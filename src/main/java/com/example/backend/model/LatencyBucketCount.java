@@ -0,0 +1,11 @@
+package com.example.backend.model;
+
+/**
+ * The number of decisions of a department in one bucket of the decision time histogram
+ */
+public interface LatencyBucketCount {
+
+    Integer getBucket();
+
+    Long getDecisions();
+}
@@ -0,0 +1,8 @@
+package com.example.backend.model;
+
+/**
+ * The delivery state of a queued email
+ */
+public enum OutboxStatus {
+    PENDING, SENT, DEAD
+}
@@ -18,7 +18,7 @@ import java.util.Set;
 public class Request {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_id_gen")
-    @SequenceGenerator(name = "requests_id_gen", sequenceName = "requests_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "requests_id_gen", sequenceName = "requests_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
@@ -26,7 +26,12 @@ public class Request {
     private Department assignedDepartment;
 
     @Column(name = "status", nullable = false, length = Integer.MAX_VALUE)
-    private String status;
+    private RequestStatus status;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Integer version;
 
     @Column(name = "type", nullable = false, length = 50)
     private String type;
@@ -47,6 +52,10 @@ public class Request {
     @JoinColumn(name = "created_by", nullable = false)
     private User createdBy;
 
+    // Set by the database on insert and by the update queries of RequestRepository
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private Instant updatedAt;
+
     @Column(name = "approved_at")
     private Instant approvedAt;
 
@@ -0,0 +1,43 @@
+package com.example.backend.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only view of a request as it is written to an export file, with its creator's name joined in.
+ * Rows are read as a projection rather than as entities, so exporting does not fill the persistence context.
+ */
+public interface RequestExportRow {
+
+    Integer getId();
+
+    String getType();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    String getCreatedBy();
+
+    String getCreatorFirstName();
+
+    String getCreatorLastName();
+
+    String getApprovedBy();
+
+    LocalDateTime getApprovedAt();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+
+    Long getCourseId();
+
+    String getSemester();
+
+    String getHousingType();
+
+    String getDuration();
+
+    String getReason();
+}
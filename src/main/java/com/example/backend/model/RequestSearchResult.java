@@ -0,0 +1,14 @@
+package com.example.backend.model;
+
+/**
+ * A request found by a full-text search, with how well it matches
+ */
+public interface RequestSearchResult extends RequestSummary {
+
+    /**
+     * The rank of the best matching text of the request, its reason or one of its comments
+     *
+     * @return The rank, higher is better
+     */
+    Float getRank();
+}
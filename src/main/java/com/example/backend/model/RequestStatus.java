@@ -0,0 +1,59 @@
+package com.example.backend.model;
+
+import lombok.Getter;
+
+/**
+ * The lifecycle of a request. A request starts open and is decided exactly once:
+ * approved or rejected by the faculty of its department, or withdrawn by its creator.
+ * The value is what is stored in the status column.
+ */
+@Getter
+public enum RequestStatus {
+    OPEN("open"), APPROVED("approved"), REJECTED("rejected"), WITHDRAWN("withdrawn");
+
+    private final String value;
+
+    RequestStatus(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Whether a request with this status may move to the given status
+     *
+     * @param target The new status
+     * @return True if the transition is allowed
+     */
+    public boolean canTransitionTo(RequestStatus target) {
+        return this == OPEN && target != OPEN;
+    }
+
+    /**
+     * Whether the status is set by a faculty decision rather than by the student
+     *
+     * @return True for approved and rejected
+     */
+    public boolean isFacultyDecision() {
+        return this == APPROVED || this == REJECTED;
+    }
+
+    /**
+     * Find the status stored as the given value
+     *
+     * @param value The stored value
+     * @return The status
+     * @throws IllegalArgumentException If no status is stored as the value
+     */
+    public static RequestStatus fromValue(String value) {
+        for (RequestStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown request status: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
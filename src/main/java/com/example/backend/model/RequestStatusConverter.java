@@ -0,0 +1,21 @@
+package com.example.backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a {@link RequestStatus} as its lower-case value, which is what the status column has always held
+ */
+@Converter(autoApply = true)
+public class RequestStatusConverter implements AttributeConverter<RequestStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(RequestStatus status) {
+        return status == null ? null : status.getValue();
+    }
+
+    @Override
+    public RequestStatus convertToEntityAttribute(String value) {
+        return value == null ? null : RequestStatus.fromValue(value);
+    }
+}
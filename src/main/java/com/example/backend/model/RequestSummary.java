@@ -0,0 +1,54 @@
+package com.example.backend.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only view of a request as it is shown on the dashboard.
+ * The subtype specific columns are null for request types that do not use them,
+ * and the creator's name is joined in by the query so that no lazy association is touched while rendering.
+ */
+public interface RequestSummary {
+
+    Integer getId();
+
+    /**
+     * The version of the request, incremented whenever its status changes or it is commented on
+     *
+     * @return The version
+     */
+    Integer getVersion();
+
+    String getType();
+
+    String getStatus();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+
+    Long getCourseId();
+
+    String getSemester();
+
+    String getHousingType();
+
+    String getDuration();
+
+    String getReason();
+
+    String getCreatorFirstName();
+
+    String getCreatorLastName();
+
+    /**
+     * The full name of the user who created the request
+     *
+     * @return The creator's first and last name
+     */
+    default String getCreatorName() {
+        return getCreatorFirstName() + " " + getCreatorLastName();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a request is created, commented on or changes status,
+ * and pushed to the open dashboards of its department and of the student who made it
+ */
+@Getter
+@AllArgsConstructor
+public class RequestUpdate {
+
+    /**
+     * What happened to the request
+     */
+    public enum Kind {
+        CREATED, COMMENTED, STATUS_CHANGED
+    }
+
+    private final Integer requestId;
+    private final Kind kind;
+    private final RequestStatus status;
+    private final Department department;
+    private final String studentEmail;
+
+}
@@ -0,0 +1,13 @@
+package com.example.backend.model;
+
+import java.time.Instant;
+
+/**
+ * The version of a request, bumped whenever its page changes: on status changes and on new comments
+ */
+public interface RequestVersion {
+
+    Integer getVersion();
+
+    Instant getUpdatedAt();
+}
@@ -0,0 +1,32 @@
+package com.example.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results.
+ * Ranked results have no stable position to continue from, so they are paged by number rather than by cursor.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchPage {
+
+    public static final int PAGE_SIZE = 20;
+    public static final int MAX_PAGE = 50;
+
+    private final String query;
+    private final List<RequestSearchResult> items;
+    private final int page;
+    private final boolean hasNext;
+
+    /**
+     * Whether there is a page before this one
+     *
+     * @return True if this is not the first page
+     */
+    public boolean isHasPrevious() {
+        return page > 0;
+    }
+}
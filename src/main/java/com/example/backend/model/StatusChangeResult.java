@@ -0,0 +1,15 @@
+package com.example.backend.model;
+
+/**
+ * The outcome of asking for a single request to change status
+ */
+public enum StatusChangeResult {
+    /** The request moved to the new status */
+    CHANGED,
+    /** The request had already left the open status, possibly through a concurrent decision */
+    ALREADY_DECIDED,
+    /** The user may not make this change to the request */
+    NOT_ALLOWED,
+    /** The request does not exist */
+    NOT_FOUND
+}
@@ -0,0 +1,32 @@
+package com.example.backend.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The tokens issued to a scripted client, in the OAuth 2.0 token response format.
+ * The access token is sent as "Authorization: Bearer &lt;token&gt;"; the refresh token is exchanged for new tokens
+ * before the access token expires.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenResponse {
+
+    @JsonProperty("access_token")
+    private final String accessToken;
+
+    /**
+     * Seconds until the access token expires
+     */
+    @JsonProperty("expires_in")
+    private final long expiresIn;
+
+    @JsonProperty("refresh_token")
+    private final String refreshToken;
+
+    @JsonProperty("token_type")
+    public String getTokenType() {
+        return "Bearer";
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ChangeStamp;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeStampRepository extends JpaRepository<ChangeStamp, String> {
+
+    /**
+     * Bump the change stamps of several scopes in a single statement, creating the missing ones.
+     * Concurrent transactions lock the rows in the order given, so callers pass the scopes sorted to avoid deadlocks.
+     * Must be called inside the transaction of the change.
+     *
+     * @param scopes The scopes, sorted and without duplicates
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO change_stamps AS c (scope, version, changed_at)
+            SELECT scope, 1, now()
+            FROM unnest(ARRAY[:scopes]) WITH ORDINALITY AS s(scope, position)
+            ORDER BY position
+            ON CONFLICT (scope) DO UPDATE
+            SET version = c.version + 1, changed_at = now()
+            """, nativeQuery = true)
+    void touch(@Param("scopes") List<String> scopes);
+}
@@ -1,7 +1,60 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Comment;
+import com.example.backend.model.CommentView;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface CommentRepository extends JpaRepository<Comment, Integer> {
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CommentRepository extends JpaRepository<Comment, Long> {
+
+    /**
+     * The columns selected for a {@link CommentView}, with the author's name joined in from the users table
+     */
+    String VIEW_COLUMNS = """
+            c.id AS id, c.text AS text, c.created_at AS "createdAt",
+            u.first_name AS "authorFirstName", u.last_name AS "authorLastName"
+            """;
+
+    /**
+     * Find the newest comments of a request, newest first.
+     * Served by the index idx_comments_request_id.
+     *
+     * @param requestId The request ID
+     * @param limit     The maximum number of comments to return
+     * @return The comments
+     */
+    @Query(value = "SELECT " + VIEW_COLUMNS + """
+            FROM comments c
+            JOIN users u ON u.email = c.user_id
+            WHERE c.request_id = :requestId
+            ORDER BY c.created_at DESC, c.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<CommentView> findLatestByRequestId(@Param("requestId") Integer requestId, @Param("limit") int limit);
+
+    /**
+     * Find the comments of a request that are older than the cursor, newest first
+     *
+     * @param requestId       The request ID
+     * @param cursorCreatedAt The creation time of the oldest comment already shown
+     * @param cursorId        The ID of the oldest comment already shown
+     * @param limit           The maximum number of comments to return
+     * @return The comments
+     */
+    @Query(value = "SELECT " + VIEW_COLUMNS + """
+            FROM comments c
+            JOIN users u ON u.email = c.user_id
+            WHERE c.request_id = :requestId
+              AND (c.created_at, c.id) < (CAST(:cursorCreatedAt AS timestamp), CAST(:cursorId AS bigint))
+            ORDER BY c.created_at DESC, c.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<CommentView> findOlderByRequestId(@Param("requestId") Integer requestId,
+                                           @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                           @Param("cursorId") Long cursorId,
+                                           @Param("limit") int limit);
 }
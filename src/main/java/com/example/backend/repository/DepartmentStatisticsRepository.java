@@ -0,0 +1,135 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Department;
+import com.example.backend.model.DepartmentStatistics;
+import com.example.backend.model.LatencyBucketCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * The department counters and decision time histograms.
+ * All writes add to the stored values with a single upsert, so concurrent transactions never lose an update
+ * and must be made in the same transaction as the request change they count.
+ */
+@Repository
+public interface DepartmentStatisticsRepository extends JpaRepository<DepartmentStatistics, Department> {
+
+    /**
+     * Count new open requests of a department
+     *
+     * @param department The ordinal of the department
+     * @param count      The number of new requests
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO department_statistics AS s (department, open_count)
+            VALUES (:department, :count)
+            ON CONFLICT (department) DO UPDATE
+            SET open_count = s.open_count + EXCLUDED.open_count, updated_at = now()
+            """, nativeQuery = true)
+    void addOpenRequests(@Param("department") int department, @Param("count") long count);
+
+    /**
+     * Count requests that just moved out of the open status, in a single statement:
+     * each request moves from the open counter of its department to the counter of its new status,
+     * and each approval or rejection is added to the histogram bucket of its decision time.
+     * Must be called after the status update, in the same transaction.
+     *
+     * @param requestIds The IDs of the requests that changed
+     */
+    @Modifying
+    @Query(value = """
+            WITH changed AS (
+                SELECT assigned_department AS department, status,
+                       CASE WHEN status IN ('approved', 'rejected')
+                            THEN decision_latency_bucket(approved_at - created_at) END AS bucket
+                FROM requests
+                WHERE id IN (:requestIds)
+            ),
+            counts AS (
+                INSERT INTO department_statistics AS s (department, open_count, approved_count, rejected_count, withdrawn_count)
+                SELECT department, -count(*),
+                       count(*) FILTER (WHERE status = 'approved'),
+                       count(*) FILTER (WHERE status = 'rejected'),
+                       count(*) FILTER (WHERE status = 'withdrawn')
+                FROM changed
+                GROUP BY department
+                ON CONFLICT (department) DO UPDATE
+                SET open_count = s.open_count + EXCLUDED.open_count,
+                    approved_count = s.approved_count + EXCLUDED.approved_count,
+                    rejected_count = s.rejected_count + EXCLUDED.rejected_count,
+                    withdrawn_count = s.withdrawn_count + EXCLUDED.withdrawn_count,
+                    updated_at = now()
+            )
+            INSERT INTO department_decision_latency AS l (department, bucket, decisions)
+            SELECT department, bucket, count(*)
+            FROM changed
+            WHERE bucket IS NOT NULL
+            GROUP BY department, bucket
+            ON CONFLICT (department, bucket) DO UPDATE
+            SET decisions = l.decisions + EXCLUDED.decisions
+            """, nativeQuery = true)
+    void recordStatusChanges(@Param("requestIds") List<Integer> requestIds);
+
+    /**
+     * Find the decision time histogram of a department
+     *
+     * @param department The ordinal of the department
+     * @return The buckets that have decisions
+     */
+    @Query(value = """
+            SELECT CAST(bucket AS integer) AS bucket, decisions AS decisions
+            FROM department_decision_latency
+            WHERE department = :department
+            """, nativeQuery = true)
+    List<LatencyBucketCount> findDecisionLatency(@Param("department") int department);
+
+    /**
+     * Block request changes until the end of the transaction, and wait for the running ones to commit.
+     * Must be called inside a transaction.
+     */
+    @Modifying
+    @Query(value = "LOCK TABLE requests IN SHARE MODE", nativeQuery = true)
+    void lockRequests();
+
+    /**
+     * Delete the decision time histograms of all departments
+     */
+    @Modifying
+    @Query(value = "DELETE FROM department_decision_latency", nativeQuery = true)
+    void deleteDecisionLatency();
+
+    /**
+     * Recount the requests of all departments by status
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO department_statistics (department, open_count, approved_count, rejected_count, withdrawn_count)
+            SELECT assigned_department,
+                   count(*) FILTER (WHERE status = 'open'),
+                   count(*) FILTER (WHERE status = 'approved'),
+                   count(*) FILTER (WHERE status = 'rejected'),
+                   count(*) FILTER (WHERE status = 'withdrawn')
+            FROM requests
+            GROUP BY assigned_department
+            """, nativeQuery = true)
+    void rebuildCounts();
+
+    /**
+     * Rebuild the decision time histograms of all departments
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO department_decision_latency (department, bucket, decisions)
+            SELECT assigned_department, decision_latency_bucket(approved_at - created_at), count(*)
+            FROM requests
+            WHERE status IN ('approved', 'rejected') AND approved_at IS NOT NULL AND created_at IS NOT NULL
+            GROUP BY 1, 2
+            """, nativeQuery = true)
+    void rebuildDecisionLatency();
+}
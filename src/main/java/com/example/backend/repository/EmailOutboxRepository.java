@@ -0,0 +1,31 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Lock the next batch of emails that are due to be sent.
+     * Rows locked by another dispatcher are skipped, so several application instances can drain the outbox
+     * concurrently without sending an email twice. Must be called inside a transaction, which holds the locks.
+     * Served by the index idx_email_outbox_due.
+     *
+     * @param limit The maximum number of emails to lock
+     * @return The locked emails, oldest due first
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE status = 'PENDING' AND next_attempt_at <= now()
+            ORDER BY next_attempt_at, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutbox> lockDueBatch(@Param("limit") int limit);
+}
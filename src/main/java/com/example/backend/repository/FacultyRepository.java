@@ -1,10 +1,12 @@
 package com.example.backend.repository;
 
-import com.example.backend.model.Department;
 import com.example.backend.model.Faculty;
+import com.example.backend.model.FacultyRoute;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,6 +14,12 @@ public interface FacultyRepository extends JpaRepository<Faculty, String> {
 
     Optional<Faculty> findByEmail(String email);
 
-    Optional<Faculty> findFacultyByDepartment(Department department);
+    /**
+     * Find the department of every faculty member, without loading the faculty entities
+     *
+     * @return The email and department of every faculty member
+     */
+    @Query("SELECT f.email AS email, f.department AS department FROM Faculty f")
+    List<FacultyRoute> findAllRoutes();
 
 }
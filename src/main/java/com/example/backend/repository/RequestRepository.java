@@ -1,16 +1,336 @@
 package com.example.backend.repository;
 
-import com.example.backend.model.Department;
+import com.example.backend.model.DecidedRequest;
 import com.example.backend.model.Request;
+import com.example.backend.model.RequestExportRow;
+import com.example.backend.model.RequestSearchResult;
+import com.example.backend.model.RequestStatus;
+import com.example.backend.model.RequestSummary;
+import com.example.backend.model.RequestVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface RequestRepository extends JpaRepository<Request, Integer> {
 
-    List<Request> findAllByCreatedByEmailAndType(String createdBy, String type);
-
-    List<Request> findAllByApprovedByEmailOrAssignedDepartmentAndStatusIsNot(String approvedByEmail, Department assignedDepartment, String status);
+    /**
+     * The columns selected for a {@link RequestSummary}, with the creator's name joined in from the users table
+     */
+    String SUMMARY_COLUMNS = """
+            r.id AS id, r.version AS version, r.type AS type, r.status AS status, r.created_at AS "createdAt",
+            r.start_date AS "startDate", r.end_date AS "endDate",
+            r.course_id AS "courseId", r.semester AS semester,
+            r.housing_type AS "housingType", r.duration AS duration, r.reason AS reason,
+            u.first_name AS "creatorFirstName", u.last_name AS "creatorLastName"
+            """;
 
     Request getRequestById(Integer requestId);
+
+    /**
+     * Find a request together with its creator, in a single query
+     *
+     * @param requestId The request ID
+     * @return The request, if it exists
+     */
+    @EntityGraph(attributePaths = {"createdBy", "createdBy.userAuthorities"})
+    Optional<Request> findWithCreatorById(Integer requestId);
+
+    /**
+     * Find the dashboard summaries of every request created by a student.
+     * Served by the index idx_requests_created_by.
+     *
+     * @param email The email of the student
+     * @return The student's requests, newest first
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + """
+            FROM requests r
+            JOIN users u ON u.email = r.created_by
+            WHERE r.created_by = :email
+            ORDER BY r.created_at DESC, r.id DESC
+            """, nativeQuery = true)
+    List<RequestSummary> findStudentDashboardRequests(@Param("email") String email);
+
+    /**
+     * The optional status and type filters of the faculty work queue, ignored when the parameter is null
+     */
+    String QUEUE_FILTERS = """
+              AND (CAST(:status AS text) IS NULL OR r.status = CAST(:status AS text))
+              AND (CAST(:type AS text) IS NULL OR r.type = CAST(:type AS text))
+            """;
+
+    /**
+     * The requests assigned to the faculty member's department that have not been withdrawn.
+     * Served by the partial index idx_requests_department_queue.
+     */
+    String QUEUE_DEPARTMENT_BRANCH = """
+            SELECT * FROM requests r
+            WHERE r.assigned_department = :department AND r.status <> 'withdrawn'
+            """ + QUEUE_FILTERS;
+
+    /**
+     * The requests the faculty member approved that are not already in the department branch.
+     * Served by the partial index idx_requests_approved_by.
+     */
+    String QUEUE_APPROVER_BRANCH = """
+            SELECT * FROM requests r
+            WHERE r.approved_by = :email AND (r.assigned_department <> :department OR r.status = 'withdrawn')
+            """ + QUEUE_FILTERS;
+
+    String QUEUE_AFTER_CURSOR = """
+              AND (r.created_at, r.id) < (CAST(:cursorCreatedAt AS timestamp), CAST(:cursorId AS integer))
+            """;
+
+    String QUEUE_BEFORE_CURSOR = """
+              AND (r.created_at, r.id) > (CAST(:cursorCreatedAt AS timestamp), CAST(:cursorId AS integer))
+            """;
+
+    String NEWEST_FIRST = " ORDER BY r.created_at DESC, r.id DESC LIMIT :limit";
+
+    String OLDEST_FIRST = " ORDER BY r.created_at, r.id LIMIT :limit";
+
+    /**
+     * Find the first page of the faculty work queue, newest first.
+     * The queue holds the requests assigned to the faculty member's department that have not been withdrawn,
+     * and the requests they approved. The two sets are read as separate index range scans and merged,
+     * because a single OR across both columns cannot use either index.
+     *
+     * @param email      The email of the faculty member
+     * @param department The ordinal of the faculty member's department
+     * @param status     The status to filter by, or null
+     * @param type       The request type to filter by, or null
+     * @param limit      The maximum number of rows to return
+     * @return The page of requests
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM ("
+            + "(" + QUEUE_DEPARTMENT_BRANCH + NEWEST_FIRST + ")"
+            + " UNION ALL "
+            + "(" + QUEUE_APPROVER_BRANCH + NEWEST_FIRST + ")"
+            + ") r JOIN users u ON u.email = r.created_by"
+            + NEWEST_FIRST, nativeQuery = true)
+    List<RequestSummary> findFacultyQueueFirstPage(@Param("email") String email,
+                                                   @Param("department") int department,
+                                                   @Param("status") String status,
+                                                   @Param("type") String type,
+                                                   @Param("limit") int limit);
+
+    /**
+     * Find a page of the faculty work queue older than the cursor, newest first
+     *
+     * @param email           The email of the faculty member
+     * @param department      The ordinal of the faculty member's department
+     * @param status          The status to filter by, or null
+     * @param type            The request type to filter by, or null
+     * @param cursorCreatedAt The creation time of the last request on the previous page
+     * @param cursorId        The ID of the last request on the previous page
+     * @param limit           The maximum number of rows to return
+     * @return The page of requests
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM ("
+            + "(" + QUEUE_DEPARTMENT_BRANCH + QUEUE_AFTER_CURSOR + NEWEST_FIRST + ")"
+            + " UNION ALL "
+            + "(" + QUEUE_APPROVER_BRANCH + QUEUE_AFTER_CURSOR + NEWEST_FIRST + ")"
+            + ") r JOIN users u ON u.email = r.created_by"
+            + NEWEST_FIRST, nativeQuery = true)
+    List<RequestSummary> findFacultyQueueAfter(@Param("email") String email,
+                                               @Param("department") int department,
+                                               @Param("status") String status,
+                                               @Param("type") String type,
+                                               @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                               @Param("cursorId") Long cursorId,
+                                               @Param("limit") int limit);
+
+    /**
+     * Find a page of the faculty work queue newer than the cursor, oldest first.
+     * Used to page backwards; the caller reverses the result to restore newest-first order.
+     *
+     * @param email           The email of the faculty member
+     * @param department      The ordinal of the faculty member's department
+     * @param status          The status to filter by, or null
+     * @param type            The request type to filter by, or null
+     * @param cursorCreatedAt The creation time of the first request on the following page
+     * @param cursorId        The ID of the first request on the following page
+     * @param limit           The maximum number of rows to return
+     * @return The page of requests
+     */
+    @Query(value = "SELECT " + SUMMARY_COLUMNS + " FROM ("
+            + "(" + QUEUE_DEPARTMENT_BRANCH + QUEUE_BEFORE_CURSOR + OLDEST_FIRST + ")"
+            + " UNION ALL "
+            + "(" + QUEUE_APPROVER_BRANCH + QUEUE_BEFORE_CURSOR + OLDEST_FIRST + ")"
+            + ") r JOIN users u ON u.email = r.created_by"
+            + OLDEST_FIRST, nativeQuery = true)
+    List<RequestSummary> findFacultyQueueBefore(@Param("email") String email,
+                                                @Param("department") int department,
+                                                @Param("status") String status,
+                                                @Param("type") String type,
+                                                @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                @Param("cursorId") Long cursorId,
+                                                @Param("limit") int limit);
+
+    /**
+     * Approve or reject the open requests of a department among the given ones, in a single statement.
+     * Requests that are not open or belong to another department are left unchanged and not returned,
+     * so of two concurrent decisions on the same request only the first one changes it.
+     * Runs as a query because of its RETURNING clause; must be called inside a read-write transaction.
+     *
+     * @param requestIds The IDs of the requests to decide
+     * @param department The ordinal of the deciding faculty member's department
+     * @param email      The email of the deciding faculty member
+     * @param status     The new status, approved or rejected
+     * @return The requests that were changed
+     */
+    @Query(value = """
+            UPDATE requests
+            SET status = :status, approved_by = :email, approved_at = now(), version = version + 1, updated_at = now()
+            WHERE id IN (:requestIds) AND assigned_department = :department AND status = 'open'
+            RETURNING id AS id, created_by AS "createdBy", CAST(assigned_department AS integer) AS "assignedDepartment"
+            """, nativeQuery = true)
+    List<DecidedRequest> decideOpenRequests(@Param("requestIds") List<Integer> requestIds,
+                                            @Param("department") int department,
+                                            @Param("email") String email,
+                                            @Param("status") String status);
+
+    /**
+     * Withdraw a student's open requests among the given ones, in a single statement.
+     * Requests of other students and requests that are no longer open are left unchanged and not returned.
+     * Runs as a query because of its RETURNING clause; must be called inside a read-write transaction.
+     *
+     * @param requestIds The IDs of the requests to withdraw
+     * @param email      The email of the student
+     * @return The requests that were changed
+     */
+    @Query(value = """
+            UPDATE requests
+            SET status = 'withdrawn', version = version + 1, updated_at = now()
+            WHERE id IN (:requestIds) AND created_by = :email AND status = 'open'
+            RETURNING id AS id, created_by AS "createdBy", CAST(assigned_department AS integer) AS "assignedDepartment"
+            """, nativeQuery = true)
+    List<DecidedRequest> withdrawRequests(@Param("requestIds") List<Integer> requestIds,
+                                          @Param("email") String email);
+
+    /**
+     * Find the current status of a request, to explain why a status change did not apply
+     *
+     * @param requestId The request ID
+     * @return The status, if the request exists
+     */
+    @Query("SELECT r.status FROM Request r WHERE r.id = :requestId")
+    Optional<RequestStatus> findStatusById(@Param("requestId") Integer requestId);
+
+    /**
+     * Find the version of a request, to tell whether a browser's copy of its page is still current
+     * without loading the request
+     *
+     * @param requestId The request ID
+     * @return The version, if the request exists
+     */
+    @Query("SELECT r.version AS version, r.updatedAt AS updatedAt FROM Request r WHERE r.id = :requestId")
+    Optional<RequestVersion> findVersionById(@Param("requestId") Integer requestId);
+
+    /**
+     * Mark a request's page as changed, e.g. after a comment was added.
+     * Must be called inside a read-write transaction.
+     *
+     * @param requestId The request ID
+     */
+    @Modifying
+    @Query(value = "UPDATE requests SET version = version + 1, updated_at = now() WHERE id = :requestId", nativeQuery = true)
+    void touchRequest(@Param("requestId") Integer requestId);
+
+    /**
+     * Stream the requests of a department created in a time range, oldest first, for an export.
+     * Withdrawn requests are left out like in the work queue, so the rows come in index order from the partial index
+     * idx_requests_department_queue and the first ones are sent before the last ones are read.
+     * The rows are fetched from a server-side cursor 1000 at a time; the stream must be consumed and closed
+     * inside a transaction.
+     *
+     * @param department The ordinal of the department
+     * @param from       The earliest creation time, inclusive
+     * @param to         The latest creation time, exclusive
+     * @return The requests
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+            SELECT r.id AS id, r.type AS type, r.status AS status, r.created_at AS "createdAt",
+                   r.created_by AS "createdBy", u.first_name AS "creatorFirstName", u.last_name AS "creatorLastName",
+                   r.approved_by AS "approvedBy", r.approved_at AS "approvedAt",
+                   r.start_date AS "startDate", r.end_date AS "endDate",
+                   r.course_id AS "courseId", r.semester AS semester,
+                   r.housing_type AS "housingType", r.duration AS duration, r.reason AS reason
+            FROM requests r
+            JOIN users u ON u.email = r.created_by
+            WHERE r.assigned_department = :department AND r.status <> 'withdrawn'
+              AND r.created_at >= :from AND r.created_at < :to
+            ORDER BY r.created_at, r.id
+            """, nativeQuery = true)
+    Stream<RequestExportRow> streamDepartmentExport(@Param("department") int department,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Restricts a search to the requests of a department, or to the requests of a student.
+     * Exactly one of the two parameters is set.
+     */
+    String SEARCH_SCOPE = """
+              AND (CAST(:department AS integer) IS NULL OR r.assigned_department = CAST(:department AS integer))
+              AND (CAST(:email AS text) IS NULL OR r.created_by = CAST(:email AS text))
+            """;
+
+    /**
+     * Find the requests whose reason or comments match a full-text query, best match first.
+     * Reasons and comments are matched through the GIN indexes idx_requests_search and idx_comments_search on their
+     * generated search vectors; a request matched by several texts is ranked by its best one.
+     *
+     * @param query      The query, in web search syntax: words, "quoted phrases", or and -excluded words
+     * @param department The ordinal of the department to search, or null
+     * @param email      The email of the student whose requests to search, or null
+     * @param limit      The maximum number of rows to return
+     * @param offset     The number of rows to skip
+     * @return The page of matching requests
+     */
+    @Query(value = """
+            WITH search AS (SELECT websearch_to_tsquery('english', :query) AS query),
+            matches AS (
+                SELECT r.id AS request_id, ts_rank(r.search_vector, search.query) AS rank
+                FROM requests r, search
+                WHERE r.search_vector @@ search.query
+            """ + SEARCH_SCOPE + """
+                UNION ALL
+                SELECT r.id, ts_rank(c.search_vector, search.query)
+                FROM comments c
+                JOIN requests r ON r.id = c.request_id, search
+                WHERE c.search_vector @@ search.query
+            """ + SEARCH_SCOPE + """
+            ),
+            ranked AS (
+                SELECT request_id, max(rank) AS rank
+                FROM matches
+                GROUP BY request_id
+                ORDER BY rank DESC, request_id DESC
+                LIMIT :limit OFFSET :offset
+            )
+            SELECT """ + SUMMARY_COLUMNS + """
+                   , m.rank AS rank
+            FROM ranked m
+            JOIN requests r ON r.id = m.request_id
+            JOIN users u ON u.email = r.created_by
+            ORDER BY m.rank DESC, r.id DESC
+            """, nativeQuery = true)
+    List<RequestSearchResult> searchRequests(@Param("query") String query,
+                                             @Param("department") Integer department,
+                                             @Param("email") String email,
+                                             @Param("limit") int limit,
+                                             @Param("offset") int offset);
 }
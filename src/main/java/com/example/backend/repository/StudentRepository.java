@@ -2,11 +2,25 @@ package com.example.backend.repository;
 
 import com.example.backend.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, String> {
     Optional<Student> findByEmail(String email);
+
+    /**
+     * Find which of the given emails belong to students, ignoring case.
+     * Served by the index idx_users_lower_email.
+     *
+     * @param lowerCaseEmails The emails, in lower case
+     * @return The emails of the students that exist, as they are stored
+     */
+    @Query("SELECT s.email FROM Student s WHERE LOWER(s.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> lowerCaseEmails);
 }
@@ -1,13 +1,17 @@
 package com.example.backend.service;
 
+import com.example.backend.config.CacheConfig;
 import com.example.backend.model.*;
 import com.example.backend.repository.FacultyRepository;
 import com.example.backend.repository.StudentRepository;
 import com.example.backend.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.security.Principal;
@@ -25,6 +29,7 @@ public class AuthService {
     private final EmailService emailService;
 
     private final PasswordResetTokenService passwordResetTokenService;
+    private final DepartmentRoutingTable departmentRoutingTable;
 
     /**
      * Constructor
@@ -33,14 +38,16 @@ public class AuthService {
      * @param facultyRepository: FacultyRepository object
      * @param passwordEncoder:   PasswordEncoder object
      * @param userRepository:    UserRepository object
+     * @param departmentRoutingTable: DepartmentRoutingTable object
      */
-    public AuthService(StudentRepository studentRepository, FacultyRepository facultyRepository, PasswordEncoder passwordEncoder, UserRepository userRepository, EmailService emailService, PasswordResetTokenService passwordResetTokenService) {
+    public AuthService(StudentRepository studentRepository, FacultyRepository facultyRepository, PasswordEncoder passwordEncoder, UserRepository userRepository, EmailService emailService, PasswordResetTokenService passwordResetTokenService, DepartmentRoutingTable departmentRoutingTable) {
         this.studentRepository = studentRepository;
         this.facultyRepository = facultyRepository;
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
         this.emailService = emailService;
         this.passwordResetTokenService = passwordResetTokenService;
+        this.departmentRoutingTable = departmentRoutingTable;
     }
 
     /**
@@ -91,14 +98,19 @@ public class AuthService {
 
         faculty.setUserAuthorities(authorities);
         facultyRepository.save(faculty);
+
+        // The new faculty member reviews their department's requests from now on
+        departmentRoutingTable.reload();
     }
 
     /**
-     * This method is used to get the user by principal
+     * This method is used to get the user by principal.
+     * The user is cached by email; callers must not modify the returned user, but load a fresh copy to update it.
      *
      * @param principal: Principal object
      * @return User object
      */
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#principal.name.toLowerCase()")
     public User getUserByPrincipal(Principal principal) {
         String userEmail = principal.getName();
         return userRepository.findByEmail(userEmail)
@@ -110,6 +122,7 @@ public class AuthService {
      *
      * @param email The email of the user that is resetting their password
      */
+    @Transactional
     public void generateResetToken(String email) {
         User user = userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
         String token = UUID.randomUUID().toString();
@@ -128,6 +141,8 @@ public class AuthService {
      * @param email       Email of the user who is updating their password
      * @param newPassword The new password to store in the database
      */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#email.toLowerCase()")
     public void updatePassword(String email, String newPassword) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + email + " not found"));
@@ -0,0 +1,72 @@
+package com.example.backend.service;
+
+import com.example.backend.model.ChangeStamp;
+import com.example.backend.model.Department;
+import com.example.backend.model.Faculty;
+import com.example.backend.model.User;
+import com.example.backend.repository.ChangeStampRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the change stamps of the dashboards, which let a dashboard that has not changed since a browser last loaded it
+ * be answered with 304 Not Modified after reading one row
+ */
+@Service
+public class ChangeStampService {
+
+    private final ChangeStampRepository changeStampRepository;
+
+    /**
+     * Constructor for the change stamp service
+     *
+     * @param changeStampRepository The change stamp repository
+     */
+    public ChangeStampService(ChangeStampRepository changeStampRepository) {
+        this.changeStampRepository = changeStampRepository;
+    }
+
+    /**
+     * Mark the dashboards of the given scopes as changed, in the transaction of the change
+     *
+     * @param scopes The scopes, see {@link ChangeStamp#departmentScope} and {@link ChangeStamp#studentScope}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void touch(Collection<String> scopes) {
+        List<String> sorted = scopes.stream().distinct().sorted().toList();
+        if (!sorted.isEmpty()) {
+            changeStampRepository.touch(sorted);
+        }
+    }
+
+    /**
+     * Mark the dashboards showing a request as changed: the department's and its student's
+     *
+     * @param department   The department of the request
+     * @param studentEmail The email of the student who created the request
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void touchRequest(Department department, String studentEmail) {
+        touch(List.of(ChangeStamp.departmentScope(department), ChangeStamp.studentScope(studentEmail)));
+    }
+
+    /**
+     * Get the change stamp of a user's dashboard
+     *
+     * @param user The user
+     * @return The stamp, at version 0 if the dashboard has never changed
+     */
+    @Transactional(readOnly = true)
+    public ChangeStamp getDashboardStamp(User user) {
+        String scope = user instanceof Faculty faculty
+                ? ChangeStamp.departmentScope(faculty.getDepartment())
+                : ChangeStamp.studentScope(user.getEmail());
+
+        return changeStampRepository.findById(scope).orElseGet(() -> new ChangeStamp(scope, 0, Instant.EPOCH));
+    }
+}
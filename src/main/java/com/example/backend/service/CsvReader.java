@@ -0,0 +1,94 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads comma separated records one at a time, so that a file is never held in memory as a whole.
+ * Fields may be quoted with double quotes, in which case they can contain commas, line breaks and doubled quotes.
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int next;
+
+    /**
+     * Constructor for the CSV reader
+     *
+     * @param reader The reader of the CSV text, should be buffered
+     * @throws IOException If the text cannot be read
+     */
+    public CsvReader(Reader reader) throws IOException {
+        this.reader = reader;
+        this.next = reader.read();
+        // Skip a byte order mark, spreadsheet applications write one
+        if (next == '\uFEFF') {
+            next = reader.read();
+        }
+    }
+
+    /**
+     * Read the next record
+     *
+     * @return The fields of the record, or null at the end of the text
+     * @throws IOException              If the text cannot be read
+     * @throws IllegalArgumentException If a quoted field is not closed
+     */
+    public List<String> readRecord() throws IOException {
+        if (next == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            int c = advance();
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Quoted field is not closed");
+                }
+                if (c == '"') {
+                    if (next == '"') {
+                        field.append('"');
+                        advance();
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && next == '\n') {
+                    advance();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Consume one character
+     *
+     * @return The consumed character, or -1 at the end of the text
+     * @throws IOException If the text cannot be read
+     */
+    private int advance() throws IOException {
+        int c = next;
+        if (c != -1) {
+            next = reader.read();
+        }
+        return c;
+    }
+}
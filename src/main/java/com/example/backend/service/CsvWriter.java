@@ -0,0 +1,61 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes comma separated records in the format {@link CsvReader} reads.
+ * Fields that contain commas, double quotes or line breaks are quoted; null fields are written as empty fields.
+ */
+public class CsvWriter {
+
+    private final Writer writer;
+
+    /**
+     * Constructor for the CSV writer
+     *
+     * @param writer The writer of the CSV text, should be buffered
+     */
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write one record followed by a line break
+     *
+     * @param fields The fields of the record
+     * @throws IOException If the text cannot be written
+     */
+    public void writeRecord(List<?> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object field = fields.get(i);
+            if (field != null) {
+                writeField(field.toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Write one field, quoted if needed
+     *
+     * @param field The field
+     * @throws IOException If the text cannot be written
+     */
+    private void writeField(String field) throws IOException {
+        boolean quote = field.indexOf(',') >= 0 || field.indexOf('"') >= 0
+                || field.indexOf('\n') >= 0 || field.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(field);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
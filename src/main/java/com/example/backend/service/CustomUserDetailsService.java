@@ -1,11 +1,16 @@
 package com.example.backend.service;
 
+import com.example.backend.config.CacheConfig;
+import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.annotation.Transactional;
 
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -15,6 +20,8 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     /**
      * This method is used to load the user by username.
+     * Not cached: the users cache is local to each app instance and only evicted on the instance that changed a password,
+     * so a cached user could still sign in with its old password on the other instances.
      *
      * @param username name of user
      * @return UserDetails
@@ -25,4 +32,23 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
+
+    /**
+     * This method is used to replace the hash of a user's password after a sign-in, when the password encoder's strength
+     * was raised since it was hashed. Called by the authentication provider with the hash of the password just verified.
+     *
+     * @param user        The user who signed in
+     * @param newPassword The new hash of the password
+     * @return The user with the new hash
+     * @throws UsernameNotFoundException if user not found
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#user.username.toLowerCase()")
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User storedUser = userRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + user.getUsername()));
+        storedUser.setPassword(newPassword);
+        return userRepository.save(storedUser);
+    }
 }
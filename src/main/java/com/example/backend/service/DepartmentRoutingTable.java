@@ -0,0 +1,65 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Department;
+import com.example.backend.model.FacultyRoute;
+import com.example.backend.repository.FacultyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory table of the faculty members who review the requests of each department.
+ * Routing a new request reads this table instead of querying the faculty table. It is reloaded when faculty sign up
+ * or change department, and periodically to pick up changes made by other application instances.
+ */
+@Slf4j
+@Service
+public class DepartmentRoutingTable {
+
+    private final FacultyRepository facultyRepository;
+
+    private volatile Map<Department, List<String>> reviewersByDepartment = Map.of();
+
+    /**
+     * Constructor for the department routing table
+     *
+     * @param facultyRepository The faculty repository
+     */
+    public DepartmentRoutingTable(FacultyRepository facultyRepository) {
+        this.facultyRepository = facultyRepository;
+    }
+
+    /**
+     * Get the emails of the faculty members who review the requests of a department
+     *
+     * @param department The department
+     * @return The reviewers' emails, empty if the department has no faculty members
+     */
+    public List<String> getReviewers(Department department) {
+        return reviewersByDepartment.getOrDefault(department, List.of());
+    }
+
+    /**
+     * Reload the table from the database.
+     * The new table is built aside and swapped in, so readers never see a partially loaded table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${routing.refresh-interval-ms:300000}", initialDelayString = "${routing.refresh-interval-ms:300000}")
+    public void reload() {
+        Map<Department, List<String>> table = new EnumMap<>(Department.class);
+        for (FacultyRoute route : facultyRepository.findAllRoutes()) {
+            table.computeIfAbsent(route.getDepartment(), department -> new ArrayList<>()).add(route.getEmail());
+        }
+        table.replaceAll((department, reviewers) -> List.copyOf(reviewers));
+
+        reviewersByDepartment = table;
+        log.debug("Loaded department routing table: {}", table);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import com.example.backend.model.*;
+import com.example.backend.repository.DepartmentStatisticsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps per-department request counts and decision time histograms.
+ * Instead of grouping the requests table on every dashboard view, the counters are added to in the transaction of
+ * every request that is created or changes status, so reading the statistics of a department costs one row and at most
+ * {@link DecisionLatencyHistogram#BUCKET_COUNT} histogram rows however many requests there are.
+ * The counters can always be rebuilt from the requests table.
+ */
+@Slf4j
+@Service
+public class DepartmentStatisticsService {
+
+    private final DepartmentStatisticsRepository departmentStatisticsRepository;
+
+    /**
+     * Constructor for the department statistics service
+     *
+     * @param departmentStatisticsRepository The department statistics repository
+     */
+    public DepartmentStatisticsService(DepartmentStatisticsRepository departmentStatisticsRepository) {
+        this.departmentStatisticsRepository = departmentStatisticsRepository;
+    }
+
+    /**
+     * Count new open requests, in the transaction that saves them
+     *
+     * @param countsByDepartment The number of new requests of each department
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordNewRequests(Map<Department, Long> countsByDepartment) {
+        countsByDepartment.forEach((department, count) ->
+                departmentStatisticsRepository.addOpenRequests(department.ordinal(), count));
+    }
+
+    /**
+     * Count requests that moved out of the open status, in the transaction that changed them
+     *
+     * @param changed The requests that changed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChanges(List<DecidedRequest> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+        departmentStatisticsRepository.recordStatusChanges(changed.stream().map(DecidedRequest::getId).toList());
+    }
+
+    /**
+     * Get the statistics of a department
+     *
+     * @param department The department
+     * @return The statistics
+     */
+    @Transactional(readOnly = true)
+    public DepartmentStatisticsReport getStatistics(Department department) {
+        DepartmentStatistics statistics = departmentStatisticsRepository.findById(department).orElse(null);
+        DecisionLatencyHistogram histogram = DecisionLatencyHistogram.of(
+                departmentStatisticsRepository.findDecisionLatency(department.ordinal()));
+
+        return DepartmentStatisticsReport.of(department, statistics, histogram);
+    }
+
+    /**
+     * Recompute all statistics from the requests table.
+     * Request changes wait until the rebuild commits, so no change is counted twice or missed; on a large table that
+     * stalls every request change for the length of the recount, so it only runs on startup when there are no statistics.
+     * After requests were changed outside the application, empty department_statistics and restart it.
+     */
+    @Transactional
+    public void rebuild() {
+        departmentStatisticsRepository.lockRequests();
+        departmentStatisticsRepository.deleteAllInBatch();
+        departmentStatisticsRepository.deleteDecisionLatency();
+        departmentStatisticsRepository.rebuildCounts();
+        departmentStatisticsRepository.rebuildDecisionLatency();
+        log.info("Rebuilt the department statistics");
+    }
+
+    /**
+     * Build the statistics on startup if they have never been built, e.g. on a database migrated from before they existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (departmentStatisticsRepository.count() == 0) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.backend.service;
+
+import com.example.backend.model.EmailOutbox;
+import com.example.backend.model.OutboxStatus;
+import com.example.backend.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the emails queued in the email outbox.
+ * Due emails are locked and sent in batches, one transaction and one SMTP session per batch. An email that fails to send is retried with
+ * exponential backoff and marked as dead once it runs out of attempts or can never be sent.
+ * <p>
+ * Publishes mail.outbox.emails, counting the outcome of every attempt, and mail.outbox.delay, the time from queueing an email to
+ * sending it; the SMTP send itself is timed by the mail sender.
+ */
+@Slf4j
+@Service
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MailSender mailSender;
+    private final SimpleMailMessage templateMessage;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+    private final Timer delayTimer;
+
+    /**
+     * Constructor for the email outbox dispatcher
+     *
+     * @param emailOutboxRepository The email outbox repository
+     * @param mailSender            The mail sender
+     * @param templateMessage       The message the sender address is taken from
+     * @param transactionManager    The transaction manager
+     * @param batchSize             The maximum number of emails sent per transaction
+     * @param maxAttempts           The number of attempts after which an email is marked as dead
+     * @param initialBackoff        The delay before the first retry, doubled for every further retry
+     * @param maxBackoff            The longest delay between two retries
+     * @param meterRegistry         The meter registry the outbox metrics are published to
+     */
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 MailSender mailSender,
+                                 SimpleMailMessage templateMessage,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${mail.outbox.batch-size:50}") int batchSize,
+                                 @Value("${mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                 @Value("${mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.templateMessage = templateMessage;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.sentCounter = Counter.builder("mail.outbox.emails").tag("outcome", "sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("mail.outbox.emails").tag("outcome", "retried").register(meterRegistry);
+        this.deadCounter = Counter.builder("mail.outbox.emails").tag("outcome", "dead").register(meterRegistry);
+        this.delayTimer = Timer.builder("mail.outbox.delay")
+                .description("Time from queueing an email to sending it")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Send all emails that are due, one batch at a time
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void dispatchDueEmails() {
+        Integer dispatched;
+        do {
+            dispatched = transactionTemplate.execute(status -> dispatchBatch());
+        } while (dispatched != null && dispatched == batchSize);
+    }
+
+    /**
+     * Lock one batch of due emails and send them over one SMTP session.
+     * Must be called inside a transaction; the outcome of every email is written when it commits.
+     *
+     * @return The number of emails in the batch
+     */
+    int dispatchBatch() {
+        List<EmailOutbox> batch = emailOutboxRepository.lockDueBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Identity keys: the failed messages are reported by the message objects that were passed in
+        Map<SimpleMailMessage, EmailOutbox> emailsByMessage = new IdentityHashMap<>();
+        for (EmailOutbox email : batch) {
+            emailsByMessage.put(toMessage(email), email);
+        }
+
+        Map<EmailOutbox, Exception> failures = send(emailsByMessage);
+
+        for (EmailOutbox email : batch) {
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                email.setStatus(OutboxStatus.SENT);
+                email.setSentAt(Instant.now());
+                sentCounter.increment();
+                // Only rows that were never persisted lack a creation time; a missing metric must not fail a sent batch
+                if (email.getCreatedAt() != null) {
+                    delayTimer.record(Duration.between(email.getCreatedAt(), email.getSentAt()));
+                }
+            } else {
+                recordFailure(email, failure);
+            }
+        }
+
+        return batch.size();
+    }
+
+    /**
+     * Send the messages in one call and collect the emails that failed
+     *
+     * @param emailsByMessage The messages to send and the emails they were built from
+     * @return The emails that failed to send, with the reason
+     */
+    private Map<EmailOutbox, Exception> send(Map<SimpleMailMessage, EmailOutbox> emailsByMessage) {
+        Map<EmailOutbox, Exception> failures = new HashMap<>();
+
+        try {
+            mailSender.send(emailsByMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, cause) -> failures.put(emailsByMessage.get(message), cause));
+            if (failures.isEmpty()) {
+                emailsByMessage.values().forEach(email -> failures.put(email, e));
+            }
+        } catch (MailParseException | MailPreparationException e) {
+            // One malformed message aborts the whole batch before anything is sent, so send them one by one
+            if (emailsByMessage.size() == 1) {
+                emailsByMessage.values().forEach(email -> failures.put(email, e));
+            } else {
+                emailsByMessage.forEach((message, email) -> failures.putAll(send(Map.of(message, email))));
+            }
+        } catch (MailException e) {
+            emailsByMessage.values().forEach(email -> failures.put(email, e));
+        }
+
+        return failures;
+    }
+
+    /**
+     * Record a failed attempt, and either schedule the next one or mark the email as dead
+     *
+     * @param email The email that failed to send
+     * @param e     The reason it failed
+     */
+    private void recordFailure(EmailOutbox email, Exception e) {
+        email.setAttempts(email.getAttempts() + 1);
+        email.setLastError(e.getMessage());
+
+        // A message that cannot be built will not succeed on a later attempt either
+        boolean permanent = e instanceof MailParseException || e instanceof MailPreparationException;
+        if (permanent || email.getAttempts() >= maxAttempts) {
+            email.setStatus(OutboxStatus.DEAD);
+            deadCounter.increment();
+            log.error("Giving up on email {} to {} after {} attempts", email.getId(), email.getRecipient(), email.getAttempts(), e);
+            return;
+        }
+
+        email.setNextAttemptAt(Instant.now().plus(backoff(email.getAttempts())));
+        retriedCounter.increment();
+        log.warn("Email {} to {} failed on attempt {}, retrying at {}: {}",
+                email.getId(), email.getRecipient(), email.getAttempts(), email.getNextAttemptAt(), e.getMessage());
+    }
+
+    /**
+     * The delay before the next attempt, doubling with every failed attempt up to the maximum backoff
+     *
+     * @param attempts The number of failed attempts so far
+     * @return The delay
+     */
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    /**
+     * Build the mail message of a queued email
+     *
+     * @param email The queued email
+     * @return The mail message
+     */
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage(templateMessage);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+}
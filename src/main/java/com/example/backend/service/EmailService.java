@@ -1,54 +1,62 @@
 package com.example.backend.service;
 
+import com.example.backend.model.DecidedRequest;
 import com.example.backend.model.Department;
-import com.example.backend.model.Faculty;
+import com.example.backend.model.EmailOutbox;
 import com.example.backend.model.Request;
+import com.example.backend.model.RequestStatus;
 import com.example.backend.model.User;
-import com.example.backend.repository.FacultyRepository;
+import com.example.backend.repository.EmailOutboxRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.MailException;
-import org.springframework.mail.MailSender;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.stereotype.Service;
 
-import java.util.NoSuchElementException;
+import java.util.List;
 
+/**
+ * Composes the notification emails and queues them in the email outbox.
+ * Nothing is sent from the calling thread: the emails are written in the caller's transaction, so they are only
+ * delivered if the change they report on commits, and {@link EmailOutboxDispatcher} sends them in the background.
+ */
 @Slf4j
 @Service
 public class EmailService {
 
-    private final MailSender mailSender;
     private final SimpleMailMessage templateMessage;
 
-    private final FacultyRepository facultyRepository;
+    private final DepartmentRoutingTable departmentRoutingTable;
+    private final EmailOutboxRepository emailOutboxRepository;
 
-    public EmailService(MailSender mailSender, SimpleMailMessage templateMessage, FacultyRepository facultyRepository) {
-        this.mailSender = mailSender;
+    public EmailService(SimpleMailMessage templateMessage, DepartmentRoutingTable departmentRoutingTable, EmailOutboxRepository emailOutboxRepository) {
         this.templateMessage = templateMessage;
-        this.facultyRepository = facultyRepository;
+        this.departmentRoutingTable = departmentRoutingTable;
+        this.emailOutboxRepository = emailOutboxRepository;
     }
 
     /**
-     * This method will send a confirmation email to the request creator when it is created
+     * Queue an email in the outbox
+     *
+     * @param recipient The recipient's email address
+     * @param subject   The subject
+     * @param body      The text of the email
+     */
+    private void enqueue(String recipient, String subject, String body) {
+        emailOutboxRepository.save(new EmailOutbox(recipient, subject, body));
+    }
+
+    /**
+     * This method will queue a confirmation email to the request creator when it is created
      *
      * @param request   The request that was created
      * @param userEmail The email of the user who created the request
      */
     public void sendRequestCreationConfirmationEmail(Request request, String userEmail) {
-        SimpleMailMessage confirmationMsg = new SimpleMailMessage(this.templateMessage);
-        confirmationMsg.setTo(userEmail);
-        confirmationMsg.setText("Request number " + request.getId() + " has successfully been created");
-
-        try {
-            this.mailSender.send(confirmationMsg);
-        } catch (MailException ex) {
-            log.error(ex.getMessage(), ex);
-        }
+        enqueue(userEmail, templateMessage.getSubject(), "Request number " + request.getId() + " has successfully been created");
     }
 
     /**
-     * This method sends an email to the faculty member who is part of the department of which the request is attached
-     * to when the request is created
+     * This method queues an email to every faculty member of the department the request is attached to
+     * when the request is created. If the department has no faculty members, no email is queued.
      *
      * @param request        The request that was created
      * @param requestCreator The user who created the request
@@ -57,81 +65,65 @@ public class EmailService {
 
         Department assignedDepartment = request.getAssignedDepartment();
 
-        Faculty faculty = facultyRepository.findFacultyByDepartment(assignedDepartment)
-                .orElseThrow(() -> new NoSuchElementException("Faculty member with department " + assignedDepartment.name() + " not found."));
+        List<String> reviewers = departmentRoutingTable.getReviewers(assignedDepartment);
 
-        SimpleMailMessage requestCreationEmail = new SimpleMailMessage(this.templateMessage);
-        requestCreationEmail.setTo(faculty.getEmail());
-        requestCreationEmail.setText(
-                "Request number " + request.getId() + " ready for review."
-                        + " Submitted by: " + requestCreator.getFirstName() + " " + requestCreator.getLastName()
-        );
+        // Do not fail the request creation, which shares this transaction, because nobody can be notified
+        if (reviewers.isEmpty()) {
+            log.warn("No faculty member with department {} to notify about request {}", assignedDepartment.name(), request.getId());
+            return;
+        }
 
-        try {
-            this.mailSender.send(requestCreationEmail);
-        } catch (MailException e) {
-            log.error(e.getMessage(), e);
+        String text = "Request number " + request.getId() + " ready for review."
+                + " Submitted by: " + requestCreator.getFirstName() + " " + requestCreator.getLastName();
+        for (String reviewer : reviewers) {
+            enqueue(reviewer, templateMessage.getSubject(), text);
         }
     }
 
     /**
-     * Send a request status change email to the request's creator
+     * Queue the status change emails of the requests a decision changed, inserted together as one batch
      *
-     * @param request The request that changed status
+     * @param requests The requests that changed status
+     * @param status   Their new status
      */
-    public void sendRequestStatusChangeToStudent(Request request) {
-        SimpleMailMessage requestStatusChangeMessage = new SimpleMailMessage(this.templateMessage);
-        requestStatusChangeMessage.setTo(request.getCreatedBy().getEmail());
-        requestStatusChangeMessage.setText(
-                "Request number " + request.getId() + " has been " + request.getStatus()
-        );
-
-        try {
-            this.mailSender.send(requestStatusChangeMessage);
-        } catch (MailException e) {
-            log.error(e.getMessage(), e);
-        }
+    public void sendRequestStatusChangesToStudents(List<DecidedRequest> requests, RequestStatus status) {
+        List<EmailOutbox> emails = requests.stream()
+                .map(request -> new EmailOutbox(request.getCreatedBy(), templateMessage.getSubject(),
+                        statusChangeText(request.getId(), status)))
+                .toList();
+
+        emailOutboxRepository.saveAll(emails);
+    }
+
+    /**
+     * The text of a status change email
+     *
+     * @param requestId The request ID
+     * @param status    The new status
+     * @return The text
+     */
+    private String statusChangeText(Integer requestId, RequestStatus status) {
+        return "Request number " + requestId + " has been " + status.getValue();
     }
 
     /**
-     * This method sends a reset password link to the user who requested it
+     * This method queues a reset password link to the user who requested it
      *
      * @param userEmail The email of the user who requested to change their password
      * @param resetLink The link that the user will click to reset their password
      */
     public void sendResetPasswordEmail(String userEmail, String resetLink) {
-        SimpleMailMessage passwordResetMessage = new SimpleMailMessage();
-
-        passwordResetMessage.setFrom("c11186907@gmail.com");
-        passwordResetMessage.setSubject("Password Reset Request");
-        passwordResetMessage.setTo(userEmail);
-        passwordResetMessage.setText("Click the link to reset your password: " + resetLink);
-
-        try {
-            this.mailSender.send(passwordResetMessage);
-        } catch (MailException e) {
-            log.error(e.getMessage(), e);
-        }
+        enqueue(userEmail, "Password Reset Request", "Click the link to reset your password: " + resetLink);
     }
 
     /**
-     * This method will email the user who requested to change their password after the password has been
+     * This method will queue an email to the user who requested to change their password after the password has been
      * successfully changed.
      *
      * @param userEmail The user who requested to change their password
      */
     public void sendPasswordChangeConfirmationEmail(String userEmail) {
-        SimpleMailMessage passwordChangeConfirmationMessage = new SimpleMailMessage();
-
-        passwordChangeConfirmationMessage.setFrom("c11186907@gmail.com");
-        passwordChangeConfirmationMessage.setSubject("Password Changed Successfully");
-        passwordChangeConfirmationMessage.setTo(userEmail);
-        passwordChangeConfirmationMessage.setText("Your password was successfully changed. If you did not request this change, please contact administration.");
-
-        try {
-            this.mailSender.send(passwordChangeConfirmationMessage);
-        } catch (MailException e) {
-            log.error(e.getMessage(), e);
-        }
+        enqueue(userEmail, "Password Changed Successfully",
+                "Your password was successfully changed. If you did not request this change, please contact administration.");
     }
 }
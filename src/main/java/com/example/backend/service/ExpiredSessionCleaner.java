@@ -0,0 +1,64 @@
+package com.example.backend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Deletes the expired HTTP sessions from the spring_session table, see {@link com.example.backend.config.SessionConfig}.
+ * Sessions are deleted in batches, each its own short statement, so that a backlog of expired sessions never holds
+ * locks on the table for long; the attributes of a session are deleted with it by the foreign key.
+ * Every app instance runs the job, the instances skip the rows another one is deleting.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "session.store", havingValue = "jdbc", matchIfMissing = true)
+public class ExpiredSessionCleaner {
+
+    private static final String DELETE_EXPIRED_BATCH = """
+            DELETE FROM spring_session
+            WHERE primary_id IN (
+                SELECT primary_id FROM spring_session
+                WHERE expiry_time < ?
+                ORDER BY expiry_time
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * Constructor for the expired session cleaner
+     *
+     * @param jdbcTemplate The JDBC template
+     * @param batchSize    The number of sessions deleted per statement
+     */
+    public ExpiredSessionCleaner(JdbcTemplate jdbcTemplate,
+                                 @Value("${session.cleanup.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Delete all sessions that have expired, one batch at a time
+     */
+    @Scheduled(fixedDelayString = "${session.cleanup.interval-ms:60000}")
+    public void deleteExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int deleted = 0;
+        int batch;
+        do {
+            batch = jdbcTemplate.update(DELETE_EXPIRED_BATCH, now, batchSize);
+            deleted += batch;
+        } while (batch == batchSize);
+
+        if (deleted > 0) {
+            log.debug("Deleted {} expired sessions", deleted);
+        }
+    }
+}
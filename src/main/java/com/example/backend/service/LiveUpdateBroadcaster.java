@@ -0,0 +1,149 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Department;
+import com.example.backend.model.Faculty;
+import com.example.backend.model.RequestUpdate;
+import com.example.backend.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes request updates to open dashboards as server-sent events.
+ * Faculty members subscribe to the channel of their department and students to their own channel.
+ * A subscription is an async servlet response, so an idle dashboard holds no thread, only its emitter.
+ * Updates are pushed after the change commits, on the async executor rather than on the request thread that made it.
+ */
+@Slf4j
+@Service
+public class LiveUpdateBroadcaster {
+
+    private final Map<String, Set<SseEmitter>> channels = new ConcurrentHashMap<>();
+    private final long timeoutMillis;
+
+    /**
+     * Constructor for the live update broadcaster
+     *
+     * @param timeout How long a subscription stays open; the browser reconnects by itself when it ends
+     */
+    public LiveUpdateBroadcaster(@Value("${live.subscription-timeout:30m}") Duration timeout) {
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Open a subscription to the updates the user may see
+     *
+     * @param user The user
+     * @return The emitter of the subscription
+     */
+    public SseEmitter subscribe(User user) {
+        String channel = user instanceof Faculty faculty
+                ? departmentChannel(faculty.getDepartment())
+                : studentChannel(user.getEmail());
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        channels.compute(channel, (key, emitters) -> {
+            Set<SseEmitter> subscribed = emitters == null ? ConcurrentHashMap.newKeySet() : emitters;
+            subscribed.add(emitter);
+            return subscribed;
+        });
+
+        emitter.onCompletion(() -> unsubscribe(channel, emitter));
+        emitter.onTimeout(() -> unsubscribe(channel, emitter));
+        emitter.onError(e -> unsubscribe(channel, emitter));
+
+        return emitter;
+    }
+
+    /**
+     * Push a request update to its department and to the student who made the request
+     *
+     * @param update The request update
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRequestUpdate(RequestUpdate update) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", update.getRequestId());
+        payload.put("kind", update.getKind());
+        payload.put("status", update.getStatus() == null ? null : update.getStatus().getValue());
+
+        SseEmitter.SseEventBuilder event = SseEmitter.event().name("request").data(payload, MediaType.APPLICATION_JSON);
+        send(departmentChannel(update.getDepartment()), event);
+        send(studentChannel(update.getStudentEmail()), event);
+    }
+
+    /**
+     * Send a comment to every subscription, so that proxies do not close idle connections
+     * and subscriptions of closed tabs are noticed and dropped
+     */
+    @Scheduled(fixedDelayString = "${live.heartbeat-interval-ms:25000}")
+    public void sendHeartbeats() {
+        SseEmitter.SseEventBuilder heartbeat = SseEmitter.event().comment("heartbeat");
+        channels.keySet().forEach(channel -> send(channel, heartbeat));
+    }
+
+    /**
+     * The number of open subscriptions
+     *
+     * @return The number of subscriptions
+     */
+    public int getSubscriptionCount() {
+        return channels.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * Send an event to every subscription of a channel, dropping the subscriptions whose client went away
+     *
+     * @param channel The channel
+     * @param event   The event
+     */
+    private void send(String channel, SseEmitter.SseEventBuilder event) {
+        Set<SseEmitter> emitters = channels.get(channel);
+        if (emitters == null) {
+            return;
+        }
+
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping live update subscription on {}: {}", channel, e.getMessage());
+                unsubscribe(channel, emitter);
+            }
+        }
+    }
+
+    /**
+     * Remove a subscription, and its channel once it has none left
+     *
+     * @param channel The channel
+     * @param emitter The emitter of the subscription
+     */
+    private void unsubscribe(String channel, SseEmitter emitter) {
+        channels.computeIfPresent(channel, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private String departmentChannel(Department department) {
+        return "department:" + department.name();
+    }
+
+    private String studentChannel(String email) {
+        return "student:" + email.toLowerCase();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Department;
+import com.example.backend.model.ExportFormat;
+import com.example.backend.model.RequestExportRow;
+import com.example.backend.repository.RequestRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exports the requests of a department as CSV or as one JSON object per line.
+ * Rows are read from a database cursor and written to the output one at a time, so the memory an export needs does
+ * not depend on how many rows it has, and the first bytes are sent before the last rows are read.
+ * The column names match the ones {@link RequestImportService} reads.
+ */
+@Slf4j
+@Service
+public class RequestExportService {
+
+    public static final List<String> COLUMNS = List.of(
+            "id", "type", "status", "createdAt", "createdBy", "creatorFirstName", "creatorLastName",
+            "approvedBy", "approvedAt", "startDate", "endDate", "courseId", "semester", "housingType", "duration", "reason"
+    );
+
+    /**
+     * The number of rows after which the output is flushed, so that the client receives the export as it is read
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private final RequestRepository requestRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructor for the request export service
+     *
+     * @param requestRepository  The request repository
+     * @param objectMapper       The object mapper JSON lines are written with
+     * @param transactionManager The transaction manager
+     */
+    public RequestExportService(RequestRepository requestRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.requestRepository = requestRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Write the requests of a department created in a date range to the output, oldest first.
+     * The database cursor only stays open inside a transaction, so the transaction spans the whole export.
+     *
+     * @param department The department
+     * @param from       The first day, inclusive
+     * @param to         The last day, inclusive
+     * @param format     The file format
+     * @param output     The output, not closed by this method
+     * @throws UncheckedIOException If the output cannot be written, e.g. because the client went away
+     */
+    public void exportDepartmentRequests(Department department, LocalDate from, LocalDate to, ExportFormat format, OutputStream output) {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<RequestExportRow> rows = requestRepository.streamDepartmentExport(
+                    department.ordinal(), from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                int count = format == ExportFormat.CSV
+                        ? writeCsv(rows.iterator(), writer)
+                        : writeJsonLines(rows.iterator(), writer);
+                writer.flush();
+
+                log.info("Exported {} requests of {} from {} to {}", count, department, from, to);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Write the rows as CSV with a header line
+     *
+     * @param rows   The rows
+     * @param writer The writer
+     * @return The number of rows written
+     * @throws IOException If the output cannot be written
+     */
+    private int writeCsv(Iterator<RequestExportRow> rows, Writer writer) throws IOException {
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRecord(COLUMNS);
+        writer.flush();
+
+        int count = 0;
+        while (rows.hasNext()) {
+            csv.writeRecord(values(rows.next()));
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Write the rows as one JSON object per line
+     *
+     * @param rows   The rows
+     * @param writer The writer
+     * @return The number of rows written
+     * @throws IOException If the output cannot be written
+     */
+    private int writeJsonLines(Iterator<RequestExportRow> rows, Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        int count = 0;
+        while (rows.hasNext()) {
+            List<Object> values = values(rows.next());
+            json.writeStartObject();
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                json.writeObjectField(COLUMNS.get(i), values.get(i));
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+
+            if (++count % FLUSH_INTERVAL == 0) {
+                json.flush();
+            }
+        }
+        json.flush();
+
+        return count;
+    }
+
+    /**
+     * The values of a row in the order of {@link #COLUMNS}; dates and times are written in ISO format
+     *
+     * @param row The row
+     * @return The values
+     */
+    private List<Object> values(RequestExportRow row) {
+        return Arrays.asList(
+                row.getId(), row.getType(), row.getStatus(), text(row.getCreatedAt()),
+                row.getCreatedBy(), row.getCreatorFirstName(), row.getCreatorLastName(),
+                row.getApprovedBy(), text(row.getApprovedAt()),
+                text(row.getStartDate()), text(row.getEndDate()),
+                row.getCourseId(), row.getSemester(), row.getHousingType(), row.getDuration(), row.getReason()
+        );
+    }
+
+    private String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.backend.service;
+
+import com.example.backend.model.*;
+import com.example.backend.repository.RequestRepository;
+import com.example.backend.repository.StudentRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports requests in bulk, e.g. the registrations migrated from the student information system at the start of a semester.
+ * The file is read as a stream and saved in chunks, one transaction per chunk, so neither the file nor the imported
+ * requests are ever held in memory as a whole. Rows are validated with the same rules as the request forms;
+ * invalid rows are skipped and reported. Imported requests are open and no notification emails are sent for them.
+ * <p>
+ * Every row names its type, the email of the student who made the request and the fields of that type:
+ * {@code type, createdBy, reason, startDate, endDate, courseId, semester, housingType, duration}.
+ * Dates are written as {@code 2024-01-31}.
+ */
+@Slf4j
+@Service
+public class RequestImportService {
+
+    public static final String LEAVE_OF_ABSENCE = "leave_of_absence";
+    public static final String STUDENT_HOUSING = "student_housing";
+    public static final String COURSE_REGISTRATION = "course_registration";
+
+    private final RequestService requestService;
+    private final RequestRepository requestRepository;
+    private final StudentRepository studentRepository;
+    private final DepartmentStatisticsService departmentStatisticsService;
+    private final ChangeStampService changeStampService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    /**
+     * Constructor for the request import service
+     *
+     * @param requestService              The request service, whose validation rules are applied to every row
+     * @param requestRepository           The request repository
+     * @param studentRepository           The student repository
+     * @param departmentStatisticsService The service counting the requests of each department
+     * @param changeStampService          The service marking the dashboards that changed
+     * @param objectMapper                The object mapper JSON files are read with
+     * @param transactionManager          The transaction manager
+     * @param chunkSize                   The number of rows saved per transaction
+     */
+    public RequestImportService(RequestService requestService,
+                                RequestRepository requestRepository,
+                                StudentRepository studentRepository,
+                                DepartmentStatisticsService departmentStatisticsService,
+                                ChangeStampService changeStampService,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${request.import.chunk-size:1000}") int chunkSize) {
+        this.requestService = requestService;
+        this.requestRepository = requestRepository;
+        this.studentRepository = studentRepository;
+        this.departmentStatisticsService = departmentStatisticsService;
+        this.changeStampService = changeStampService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Import the requests of a CSV file whose first line names the columns
+     *
+     * @param input The file
+     * @return The import report
+     */
+    public ImportReport importCsv(InputStream input) {
+        ImportReport report = new ImportReport();
+
+        try (Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.readRecord();
+            if (header == null) {
+                report.fail("The file is empty.");
+                return report;
+            }
+
+            importRows(() -> {
+                List<String> fields = csv.readRecord();
+                if (fields == null) {
+                    return null;
+                }
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < Math.min(header.size(), fields.size()); i++) {
+                    row.put(header.get(i).trim(), fields.get(i));
+                }
+                return row;
+            }, report);
+        } catch (IOException e) {
+            report.fail("The file could not be read: " + e.getMessage());
+        }
+
+        return report;
+    }
+
+    /**
+     * Import the requests of a JSON file holding either an array of request objects
+     * or one request object per line
+     *
+     * @param input The file
+     * @return The import report
+     */
+    public ImportReport importJson(InputStream input) {
+        ImportReport report = new ImportReport();
+
+        try (MappingIterator<Map<String, Object>> objects = objectMapper
+                .readerFor(new TypeReference<Map<String, Object>>() {
+                })
+                .readValues(input)) {
+            importRows(() -> {
+                if (!objects.hasNextValue()) {
+                    return null;
+                }
+                Map<String, String> row = new HashMap<>();
+                objects.nextValue().forEach((name, value) -> row.put(name, value == null ? null : value.toString()));
+                return row;
+            }, report);
+        } catch (IOException e) {
+            report.fail("The file could not be read: " + e.getMessage());
+        }
+
+        return report;
+    }
+
+    /**
+     * The rows of an import file, read one at a time
+     */
+    @FunctionalInterface
+    private interface RowSource {
+
+        /**
+         * Read the next row
+         *
+         * @return The value of each column of the row, or null at the end of the file
+         * @throws IOException If the file cannot be read
+         */
+        Map<String, String> next() throws IOException;
+    }
+
+    /**
+     * Read all rows and save the valid ones, one chunk at a time.
+     * A row that cannot be parsed or a chunk that cannot be saved stops the import; the chunks before it stay imported.
+     *
+     * @param rows   The rows of the file
+     * @param report The report the outcome is recorded in
+     */
+    private void importRows(RowSource rows, ImportReport report) {
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+
+        try {
+            while (true) {
+                Map<String, String> values;
+                try {
+                    values = rows.next();
+                } catch (IOException | IllegalArgumentException e) {
+                    report.fail("Row " + (rowNumber + 1) + " could not be read: " + e.getMessage()
+                            + ". The rows before it were imported.");
+                    break;
+                }
+                if (values == null) {
+                    break;
+                }
+
+                rowNumber++;
+                if (values.values().stream().allMatch(this::isBlank)) {
+                    continue;
+                }
+
+                chunk.add(new ImportRow(rowNumber, values));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, report);
+            }
+        } catch (DataAccessException e) {
+            long first = chunk.get(0).number();
+            long last = chunk.get(chunk.size() - 1).number();
+            log.error("Saving imported rows {} to {} failed", first, last, e);
+            report.fail("Rows " + first + " to " + last + " could not be saved. The rows before them were imported.");
+        }
+
+        log.info("Imported {} requests, rejected {}", report.getImported(), report.getRejected());
+    }
+
+    /**
+     * Validate a chunk of rows and save the valid ones in one transaction.
+     * The students the rows name are looked up with one query per chunk.
+     *
+     * @param chunk  The rows
+     * @param report The report the outcome is recorded in
+     */
+    private void importChunk(List<ImportRow> chunk, ImportReport report) {
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            String email = value(row.values(), "createdBy");
+            if (email != null) {
+                emails.add(email.toLowerCase());
+            }
+        }
+        Map<String, String> students = new HashMap<>();
+        for (String email : studentRepository.findExistingEmails(emails)) {
+            students.put(email.toLowerCase(), email);
+        }
+
+        List<ValidRow> valid = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            Map<String, String> errors = new LinkedHashMap<>();
+            Request request = toRequest(row.values(), errors);
+
+            String email = value(row.values(), "createdBy");
+            if (email == null) {
+                errors.put("createdBy", "Student email is required");
+            } else if (!students.containsKey(email.toLowerCase())) {
+                errors.put("createdBy", "No student with email " + email);
+            }
+
+            if (errors.isEmpty()) {
+                valid.add(new ValidRow(request, students.get(email.toLowerCase())));
+            } else {
+                report.addRejected(row.number(), errors);
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // Hibernate sends the inserts in JDBC batches and takes their IDs from the pooled sequence
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Request> requests = new ArrayList<>(valid.size());
+            for (ValidRow row : valid) {
+                row.request().setCreatedBy(studentRepository.getReferenceById(row.creator()));
+                requests.add(row.request());
+            }
+            requestRepository.saveAll(requests);
+            departmentStatisticsService.recordNewRequests(valid.stream()
+                    .collect(Collectors.groupingBy(row -> row.request().getAssignedDepartment(), Collectors.counting())));
+            changeStampService.touch(valid.stream()
+                    .flatMap(row -> Stream.of(ChangeStamp.departmentScope(row.request().getAssignedDepartment()),
+                            ChangeStamp.studentScope(row.creator())))
+                    .collect(Collectors.toSet()));
+        });
+        report.addImported(valid.size());
+    }
+
+    /**
+     * Create the request a row describes and validate it with the rules of its form
+     *
+     * @param values The value of each column of the row
+     * @param errors The map the error message of each invalid field is added to
+     * @return The request, or null if the type is unknown
+     */
+    private Request toRequest(Map<String, String> values, Map<String, String> errors) {
+        String type = value(values, "type");
+        Request request;
+        Map<String, String> formErrors;
+
+        if (LEAVE_OF_ABSENCE.equals(type)) {
+            LeaveOfAbsenceRequest leaveOfAbsenceRequest = new LeaveOfAbsenceRequest();
+            leaveOfAbsenceRequest.setStartDate(parseDate(values, "startDate", "Start date", errors));
+            leaveOfAbsenceRequest.setEndDate(parseDate(values, "endDate", "End date", errors));
+            leaveOfAbsenceRequest.setReason(value(values, "reason"));
+            leaveOfAbsenceRequest.setAssignedDepartment(Department.STUDENT_AFFAIRS);
+            formErrors = requestService.validateLeaveRequest(leaveOfAbsenceRequest);
+            request = leaveOfAbsenceRequest;
+        } else if (STUDENT_HOUSING.equals(type)) {
+            StudentHousingRequest studentHousingRequest = new StudentHousingRequest();
+            studentHousingRequest.setHousingType(value(values, "housingType"));
+            studentHousingRequest.setDuration(value(values, "duration"));
+            studentHousingRequest.setReason(value(values, "reason"));
+            studentHousingRequest.setAssignedDepartment(Department.HOUSING_OFFICE);
+            formErrors = requestService.validateHousingRequest(studentHousingRequest);
+            request = studentHousingRequest;
+        } else if (COURSE_REGISTRATION.equals(type)) {
+            CourseRegistrationRequest courseRegistrationRequest = new CourseRegistrationRequest();
+            courseRegistrationRequest.setCourseId(parseLong(values, "courseId", "Course ID", errors));
+            courseRegistrationRequest.setSemester(value(values, "semester"));
+            courseRegistrationRequest.setReason(value(values, "reason"));
+            courseRegistrationRequest.setAssignedDepartment(Department.REGISTRARS_OFFICE);
+            formErrors = requestService.validateCourseRegistrationRequest(courseRegistrationRequest);
+            request = courseRegistrationRequest;
+        } else {
+            errors.put("type", "Type must be " + LEAVE_OF_ABSENCE + ", " + STUDENT_HOUSING + " or " + COURSE_REGISTRATION);
+            return null;
+        }
+
+        // A value that could not be parsed already has its error, which says more than "is required"
+        formErrors.forEach(errors::putIfAbsent);
+        request.setType(type);
+        request.setStatus(RequestStatus.OPEN);
+
+        return request;
+    }
+
+    /**
+     * Parse an optional date column
+     *
+     * @param values The value of each column of the row
+     * @param column The column
+     * @param label  The name of the field in error messages
+     * @param errors The map the error is added to if the value is not a date
+     * @return The date, or null if it is missing or invalid
+     */
+    private LocalDate parseDate(Map<String, String> values, String column, String label, Map<String, String> errors) {
+        return parse(values, column, LocalDate::parse, label + " must be a date like 2024-01-31", errors);
+    }
+
+    /**
+     * Parse an optional whole number column
+     *
+     * @param values The value of each column of the row
+     * @param column The column
+     * @param label  The name of the field in error messages
+     * @param errors The map the error is added to if the value is not a number
+     * @return The number, or null if it is missing or invalid
+     */
+    private Long parseLong(Map<String, String> values, String column, String label, Map<String, String> errors) {
+        return parse(values, column, Long::valueOf, label + " must be a whole number", errors);
+    }
+
+    /**
+     * Parse an optional column
+     *
+     * @param values  The value of each column of the row
+     * @param column  The column
+     * @param parser  The parser of the value
+     * @param message The error message if the value cannot be parsed
+     * @param errors  The map the error is added to
+     * @param <T>     The type of the parsed value
+     * @return The parsed value, or null if it is missing or invalid
+     */
+    private <T> T parse(Map<String, String> values, String column, Parser<T> parser, String message, Map<String, String> errors) {
+        String value = value(values, column);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return parser.parse(value);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            errors.put(column, message);
+            return null;
+        }
+    }
+
+    /**
+     * Parses the text of a column
+     *
+     * @param <T> The type of the parsed value
+     */
+    @FunctionalInterface
+    private interface Parser<T> {
+        T parse(String value);
+    }
+
+    /**
+     * The trimmed value of a column
+     *
+     * @param values The value of each column of the row
+     * @param column The column
+     * @return The value, or null if it is missing or blank
+     */
+    private String value(Map<String, String> values, String column) {
+        String value = values.get(column);
+        return isBlank(value) ? null : value.trim();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * A row of the file with its number, starting at 1 for the first data row
+     */
+    private record ImportRow(long number, Map<String, String> values) {
+    }
+
+    /**
+     * A valid request and the stored email of the student who made it
+     */
+    private record ValidRow(Request request, String creator) {
+    }
+}
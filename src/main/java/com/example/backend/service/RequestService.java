@@ -1,98 +1,345 @@
 package com.example.backend.service;
 
 import com.example.backend.model.*;
+import com.example.backend.repository.CommentRepository;
 import com.example.backend.repository.RequestRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.mail.MailException;
-import org.springframework.mail.MailSender;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class RequestService {
 
+    public static final int COMMENT_PAGE_SIZE = 20;
+    public static final int MAX_BULK_SIZE = 500;
+
     private final RequestRepository requestRepository;
+    private final CommentRepository commentRepository;
+    private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DepartmentStatisticsService departmentStatisticsService;
+    private final ChangeStampService changeStampService;
 
     /**
      * Constructor for RequestService
      *
-     * @param requestRepository RequestRepository
+     * @param requestRepository           RequestRepository
+     * @param commentRepository           CommentRepository
+     * @param emailService                EmailService
+     * @param eventPublisher              The publisher of the request updates pushed to open dashboards
+     * @param departmentStatisticsService The service counting the requests of each department
+     * @param changeStampService          The service marking the dashboards that changed
      */
-    public RequestService(RequestRepository requestRepository) {
+    public RequestService(RequestRepository requestRepository,
+                          CommentRepository commentRepository,
+                          EmailService emailService,
+                          ApplicationEventPublisher eventPublisher,
+                          DepartmentStatisticsService departmentStatisticsService,
+                          ChangeStampService changeStampService) {
         this.requestRepository = requestRepository;
+        this.commentRepository = commentRepository;
+        this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
+        this.departmentStatisticsService = departmentStatisticsService;
+        this.changeStampService = changeStampService;
     }
 
     /**
-     * Method to get all requests
+     * Method to save a new request and queue the emails to its creator and the reviewing department.
+     * The emails, the department statistics and the dashboard change stamps are written in the same transaction as the request.
      *
-     * @return List of Request
+     * @param request The request to create
+     * @param creator The user who created the request
      */
-    public List<LeaveOfAbsenceRequest> getLeaveOfAbsenceRequests(String userEmail) {
-        return requestRepository.findAllByCreatedByEmailAndType(userEmail, "leave_of_absence")
-                .stream()
-                .map(request -> (LeaveOfAbsenceRequest) request)
-                .collect(Collectors.toList());
+    @Transactional
+    public void createRequest(Request request, User creator) {
+        requestRepository.save(request);
+        departmentStatisticsService.recordNewRequests(Map.of(request.getAssignedDepartment(), 1L));
+        changeStampService.touchRequest(request.getAssignedDepartment(), creator.getEmail());
+
+        emailService.sendRequestCreationConfirmationEmail(request, creator.getEmail());
+        emailService.sendRequestCreationEmailToFaculty(request, creator);
+
+        eventPublisher.publishEvent(new RequestUpdate(request.getId(), RequestUpdate.Kind.CREATED,
+                request.getStatus(), request.getAssignedDepartment(), creator.getEmail()));
     }
 
     /**
-     * Method to get all course registration requests
+     * Method to add a comment to a request
      *
-     * @return List of CourseRegistrationRequest
+     * @param request The request
+     * @param author  The user who wrote the comment
+     * @param comment The comment
      */
-    public List<CourseRegistrationRequest> getCourseRegistrationRequests(String userEmail) {
-        return requestRepository.findAllByCreatedByEmailAndType(userEmail, "course_registration")
-                .stream()
-                .map(request -> (CourseRegistrationRequest) request)
-                .collect(Collectors.toList());
+    @Transactional
+    public void addComment(Request request, User author, Comment comment) {
+        comment.setRequest(request);
+        comment.setUser(author);
+        commentRepository.save(comment);
+        requestRepository.touchRequest(request.getId());
+
+        eventPublisher.publishEvent(new RequestUpdate(request.getId(), RequestUpdate.Kind.COMMENTED,
+                null, request.getAssignedDepartment(), request.getCreatedBy().getEmail()));
     }
 
     /**
-     * Method to get all student housing requests
+     * Method to move one request out of the open status and queue the email to its creator.
+     * The change is a single conditional update, so when two users decide the same request at the same time
+     * exactly one of them changes it and only that change sends an email.
      *
-     * @return List of StudentHousingRequest
+     * @param user      The user making the change
+     * @param requestId The request ID
+     * @param status    The new status
+     * @return Whether the request changed, and if not, why
      */
-    public List<StudentHousingRequest> getStudentHousingRequests(String userEmail) {
-        return requestRepository.findAllByCreatedByEmailAndType(userEmail, "student_housing")
-                .stream()
-                .map(request -> (StudentHousingRequest) request)
-                .collect(Collectors.toList());
+    @Transactional
+    public StatusChangeResult updateRequestStatus(User user, Integer requestId, RequestStatus status) {
+        if (!mayChangeTo(user, status)) {
+            return StatusChangeResult.NOT_ALLOWED;
+        }
+
+        if (!applyStatusChange(user, List.of(requestId), status).isEmpty()) {
+            return StatusChangeResult.CHANGED;
+        }
+
+        // Nothing changed: only now read the request to tell the caller why
+        return requestRepository.findStatusById(requestId)
+                .map(current -> current.canTransitionTo(status)
+                        ? StatusChangeResult.NOT_ALLOWED
+                        : StatusChangeResult.ALREADY_DECIDED)
+                .orElse(StatusChangeResult.NOT_FOUND);
     }
 
     /**
-     * Method to get all faculty requests
+     * Method to apply one decision to several requests with a single set-based update,
+     * and queue the notifications of all changed requests as one batch in the same transaction.
+     * Faculty members approve or reject the open requests of their department, students withdraw their own open requests;
+     * the other requests are skipped.
      *
-     * @return List of Request
+     * @param user       The user making the decision
+     * @param requestIds The IDs of the selected requests
+     * @param status     The new status
+     * @return The number of requests that were changed
+     * @throws IllegalArgumentException If too many requests are selected or the user may not set the status
      */
-    public List<Request> getFacultyRequests(String facultyEmail, Department assignedDepartment) {
-        return requestRepository.findAllByApprovedByEmailOrAssignedDepartmentAndStatusIsNot(facultyEmail, assignedDepartment, "withdrawn");
+    @Transactional
+    public int bulkUpdateStatus(User user, List<Integer> requestIds, RequestStatus status) {
+        List<Integer> ids = requestIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " requests can be updated at once.");
+        }
+        if (!mayChangeTo(user, status)) {
+            throw new IllegalArgumentException(status == RequestStatus.WITHDRAWN
+                    ? "Only students can withdraw requests."
+                    : "Only faculty members can approve or reject requests.");
+        }
+
+        return applyStatusChange(user, ids, status).size();
     }
 
     /**
-     * Method to get all faculty requests
+     * Whether the user's role allows them to set the status:
+     * faculty members approve and reject, students withdraw
      *
-     * @return List of Request
+     * @param user   The user
+     * @param status The new status
+     * @return True if the user may set the status
      */
-    public boolean validateLeaveRequestForm(Model model, LeaveOfAbsenceRequest leaveOfAbsenceRequest) {
-        boolean hasErrors = false;
+    private boolean mayChangeTo(User user, RequestStatus status) {
+        return status.isFacultyDecision() ? user instanceof Faculty : status == RequestStatus.WITHDRAWN && user instanceof Student;
+    }
 
-        // Check if reason is provided
-        if (leaveOfAbsenceRequest.getStartDate() == null) {
-            model.addAttribute("startDateError", "Start date is required");
-            hasErrors = true;
+    /**
+     * Move the open requests among the given ones that are in the user's scope to the new status,
+     * and queue the emails of the requests that changed
+     *
+     * @param user       The user making the change, already checked by {@link #mayChangeTo}
+     * @param requestIds The IDs of the requests
+     * @param status     The new status
+     * @return The requests that were changed
+     */
+    private List<DecidedRequest> applyStatusChange(User user, List<Integer> requestIds, RequestStatus status) {
+        List<DecidedRequest> changed = user instanceof Faculty faculty
+                ? requestRepository.decideOpenRequests(requestIds, faculty.getDepartment().ordinal(), faculty.getEmail(), status.getValue())
+                : requestRepository.withdrawRequests(requestIds, user.getEmail());
+
+        if (!changed.isEmpty()) {
+            departmentStatisticsService.recordStatusChanges(changed);
+            changeStampService.touch(changed.stream()
+                    .flatMap(request -> Stream.of(
+                            ChangeStamp.departmentScope(Department.values()[request.getAssignedDepartment()]),
+                            ChangeStamp.studentScope(request.getCreatedBy())))
+                    .toList());
+            emailService.sendRequestStatusChangesToStudents(changed, status);
+        }
+        for (DecidedRequest request : changed) {
+            eventPublisher.publishEvent(new RequestUpdate(request.getId(), RequestUpdate.Kind.STATUS_CHANGED,
+                    status, Department.values()[request.getAssignedDepartment()], request.getCreatedBy()));
         }
 
-        // Check if end date is provided
-        if (leaveOfAbsenceRequest.getEndDate() == null) {
-            model.addAttribute("endDateError", "End date is required");
-            hasErrors = true;
+        return changed;
+    }
+
+    /**
+     * Method to get the version of a request without loading it
+     *
+     * @param requestId The request ID
+     * @return The version, if the request exists
+     */
+    public Optional<RequestVersion> getRequestVersion(Integer requestId) {
+        return requestRepository.findVersionById(requestId);
+    }
+
+    /**
+     * Method to get a request together with its creator
+     *
+     * @param requestId The request ID
+     * @return The request
+     * @throws NoSuchElementException If the request does not exist
+     */
+    public Request getRequestWithCreator(Integer requestId) {
+        return requestRepository.findWithCreatorById(requestId)
+                .orElseThrow(() -> new NoSuchElementException("Request number " + requestId + " not found."));
+    }
+
+    /**
+     * Method to get one page of a request's comments in the order they were written.
+     * The first page holds the newest comments; the previous cursor of a page points at older comments.
+     *
+     * @param requestId The request ID
+     * @param before    The cursor of the oldest comment already shown, or null for the newest comments
+     * @return The page of comments, oldest first
+     */
+    public KeysetPage<CommentView> getCommentPage(Integer requestId, String before) {
+        KeysetCursor cursor = KeysetCursor.decode(before);
+
+        List<CommentView> rows = cursor == null
+                ? commentRepository.findLatestByRequestId(requestId, COMMENT_PAGE_SIZE + 1)
+                : commentRepository.findOlderByRequestId(requestId, cursor.getCreatedAt(), cursor.getId(), COMMENT_PAGE_SIZE + 1);
+        boolean hasOlder = rows.size() > COMMENT_PAGE_SIZE;
+        List<CommentView> items = new ArrayList<>(rows.subList(0, Math.min(rows.size(), COMMENT_PAGE_SIZE)));
+        String olderCursor = hasOlder ? KeysetCursor.of(items.get(items.size() - 1)).encode() : null;
+        Collections.reverse(items);
+
+        return new KeysetPage<>(items, olderCursor, null);
+    }
+
+    /**
+     * Method to get the requests shown on a student's dashboard.
+     * All request types are loaded with a single query and grouped by type afterwards.
+     *
+     * @param studentEmail The email of the student
+     * @return The student's requests grouped by type
+     */
+    public DashboardRequests getStudentDashboardRequests(String studentEmail) {
+        return DashboardRequests.from(requestRepository.findStudentDashboardRequests(studentEmail));
+    }
+
+    /**
+     * Method to get one page of a faculty member's work queue.
+     * Pages are addressed by keyset cursors on the creation time and ID of the requests,
+     * so the cost of a page does not depend on how much history the department has.
+     *
+     * @param faculty The faculty member
+     * @param filter  The filters and page position
+     * @return The page of requests, newest first
+     */
+    public KeysetPage<RequestSummary> getFacultyQueue(Faculty faculty, FacultyQueueFilter filter) {
+        int pageSize = filter.getPageSize();
+        int department = faculty.getDepartment().ordinal();
+        String status = blankToNull(filter.getStatus());
+        String type = blankToNull(filter.getType());
+
+        KeysetCursor before = KeysetCursor.decode(filter.getBefore());
+
+        // Paging backwards: read the requests newer than the cursor and restore newest-first order
+        if (before != null) {
+            List<RequestSummary> rows = new ArrayList<>(requestRepository.findFacultyQueueBefore(
+                    faculty.getEmail(), department, status, type, before.getCreatedAt(), before.getId(), pageSize + 1));
+            boolean hasNewer = rows.size() > pageSize;
+            List<RequestSummary> items = new ArrayList<>(rows.subList(0, Math.min(rows.size(), pageSize)));
+            Collections.reverse(items);
+
+            return new KeysetPage<>(items,
+                    hasNewer ? KeysetCursor.of(items.get(0)).encode() : null,
+                    items.isEmpty() ? null : KeysetCursor.of(items.get(items.size() - 1)).encode());
+        }
+
+        KeysetCursor after = KeysetCursor.decode(filter.getAfter());
+        List<RequestSummary> rows = after == null
+                ? requestRepository.findFacultyQueueFirstPage(faculty.getEmail(), department, status, type, pageSize + 1)
+                : requestRepository.findFacultyQueueAfter(
+                faculty.getEmail(), department, status, type, after.getCreatedAt(), after.getId(), pageSize + 1);
+        boolean hasOlder = rows.size() > pageSize;
+        List<RequestSummary> items = rows.subList(0, Math.min(rows.size(), pageSize));
+
+        return new KeysetPage<>(items,
+                after != null && !items.isEmpty() ? KeysetCursor.of(items.get(0)).encode() : null,
+                hasOlder ? KeysetCursor.of(items.get(items.size() - 1)).encode() : null);
+    }
+
+    /**
+     * Method to search the reasons and comments of the requests a user may see, best match first.
+     * Faculty members search the requests of their department, students search their own requests.
+     *
+     * @param user  The user searching
+     * @param query The search text, in web search syntax
+     * @param page  The number of the page, starting at 0
+     * @return The page of results, empty if the search text is blank
+     */
+    public SearchPage searchRequests(User user, String query, int page) {
+        String text = blankToNull(query);
+        int pageNumber = Math.max(0, Math.min(page, SearchPage.MAX_PAGE));
+        if (text == null) {
+            return new SearchPage("", List.of(), 0, false);
         }
 
-        return hasErrors;
+        text = text.strip();
+        Integer department = user instanceof Faculty faculty ? faculty.getDepartment().ordinal() : null;
+        String email = department == null ? user.getEmail() : null;
+
+        List<RequestSearchResult> rows = requestRepository.searchRequests(text, department, email,
+                SearchPage.PAGE_SIZE + 1, pageNumber * SearchPage.PAGE_SIZE);
+        boolean hasNext = rows.size() > SearchPage.PAGE_SIZE && pageNumber < SearchPage.MAX_PAGE;
+
+        return new SearchPage(text, rows.subList(0, Math.min(rows.size(), SearchPage.PAGE_SIZE)), pageNumber, hasNext);
+    }
+
+    /**
+     * Treat blank filter values as absent
+     *
+     * @param value The filter value
+     * @return The value, or null if it is blank
+     */
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    /**
+     * Method to validate leave request form
+     *
+     * @param model                 Model
+     * @param leaveOfAbsenceRequest LeaveOfAbsenceRequest
+     * @return boolean
+     */
+    public boolean validateLeaveRequestForm(Model model, LeaveOfAbsenceRequest leaveOfAbsenceRequest) {
+        return addErrorsToModel(model, validateLeaveRequest(leaveOfAbsenceRequest));
     }
 
     /**
@@ -103,45 +350,105 @@ public class RequestService {
      * @return boolean
      */
     public boolean validateHousingRequestForm(Model model, StudentHousingRequest studentHousingRequest) {
-        boolean hasErrors = false;
+        return addErrorsToModel(model, validateHousingRequest(studentHousingRequest));
+    }
+
+    /**
+     * Method to validate course registration request form
+     *
+     * @param model                     Model
+     * @param courseRegistrationRequest CourseRegistrationRequest
+     * @return boolean
+     */
+    public boolean validateCourseRegistrationRequestForm(Model model, CourseRegistrationRequest courseRegistrationRequest) {
+        return addErrorsToModel(model, validateCourseRegistrationRequest(courseRegistrationRequest));
+    }
+
+    /**
+     * Method to validate a leave request, used by the form and by the bulk import
+     *
+     * @param leaveOfAbsenceRequest LeaveOfAbsenceRequest
+     * @return The error message of each invalid field, empty if the request is valid
+     */
+    public Map<String, String> validateLeaveRequest(LeaveOfAbsenceRequest leaveOfAbsenceRequest) {
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        // Check if start date is provided
+        if (leaveOfAbsenceRequest.getStartDate() == null) {
+            errors.put("startDate", "Start date is required");
+        }
+
+        // Check if end date is provided
+        if (leaveOfAbsenceRequest.getEndDate() == null) {
+            errors.put("endDate", "End date is required");
+        }
+
+        return errors;
+    }
+
+    /**
+     * Method to validate a housing request, used by the form and by the bulk import
+     *
+     * @param studentHousingRequest StudentHousingRequest
+     * @return The error message of each invalid field, empty if the request is valid
+     */
+    public Map<String, String> validateHousingRequest(StudentHousingRequest studentHousingRequest) {
+        Map<String, String> errors = new LinkedHashMap<>();
 
         // Check if housing type is provided
-        if (studentHousingRequest.getHousingType().isBlank()) {
-            model.addAttribute("housingTypeError", "Housing type is required");
-            hasErrors = true;
+        if (isBlank(studentHousingRequest.getHousingType())) {
+            errors.put("housingType", "Housing type is required");
         }
 
         // Check if duration is provided
-        if (studentHousingRequest.getDuration().isBlank()) {
-            model.addAttribute("durationError", "Duration is required");
-            hasErrors = true;
+        if (isBlank(studentHousingRequest.getDuration())) {
+            errors.put("duration", "Duration is required");
         }
 
-        return hasErrors;
+        return errors;
     }
 
     /**
-     * Method to validate course registration request form
+     * Method to validate a course registration request, used by the form and by the bulk import
      *
-     * @param model                     Model
      * @param courseRegistrationRequest CourseRegistrationRequest
-     * @return boolean
+     * @return The error message of each invalid field, empty if the request is valid
      */
-    public boolean validateCourseRegistrationRequestForm(Model model, CourseRegistrationRequest courseRegistrationRequest) {
-        boolean hasErrors = false;
+    public Map<String, String> validateCourseRegistrationRequest(CourseRegistrationRequest courseRegistrationRequest) {
+        Map<String, String> errors = new LinkedHashMap<>();
 
         // Check if course ID is provided
         if (courseRegistrationRequest.getCourseId() == null) {
-            model.addAttribute("courseIdError", "Course ID is required");
-            hasErrors = true;
+            errors.put("courseId", "Course ID is required");
         }
 
         // Check if semester is provided
-        if (courseRegistrationRequest.getSemester().isBlank()) {
-            model.addAttribute("semesterError", "Semester is required");
-            hasErrors = true;
+        if (isBlank(courseRegistrationRequest.getSemester())) {
+            errors.put("semester", "Semester is required");
         }
 
-        return hasErrors;
+        return errors;
+    }
+
+    /**
+     * Add each error to the model as the attribute the form shows under its field
+     *
+     * @param model  Model
+     * @param errors The error message of each invalid field
+     * @return True if there are errors
+     */
+    private boolean addErrorsToModel(Model model, Map<String, String> errors) {
+        errors.forEach((field, message) -> model.addAttribute(field + "Error", message));
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Whether a text field is missing; imported rows can leave out fields that a form always submits
+     *
+     * @param value The field value
+     * @return True if the value is null or blank
+     */
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 }
@@ -0,0 +1,178 @@
+package com.example.backend.service;
+
+import com.example.backend.config.TokenConfig;
+import com.example.backend.model.TokenResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsChecker;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues the signed tokens scripted clients authenticate with, see {@link TokenConfig}.
+ * Access tokens carry the user's email and authority names and are accepted until they expire without any lookup.
+ * Refresh tokens are only accepted at /auth/token/refresh, which loads the user from the database again: a deleted or
+ * locked user or changed authorities take effect at the next refresh. A refresh token also carries a fingerprint of the
+ * user's password hash, so changing or resetting the password ends every refresh token issued before; access tokens
+ * already issued stay valid until they expire.
+ */
+@Service
+public class TokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final JwtDecoder refreshTokenDecoder;
+    private final UserDetailsService userDetailsService;
+    private final UserDetailsChecker userDetailsChecker = new AccountStatusUserDetailsChecker();
+    private final String issuer;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+
+    /**
+     * Constructor for the token service
+     *
+     * @param jwtEncoder         The encoder signing the tokens
+     * @param tokenSigningKey    The key refresh tokens are verified with
+     * @param userDetailsService The service loading the user tokens are issued to
+     * @param issuer             The issuer of the tokens
+     * @param accessTokenTtl     How long an access token is accepted
+     * @param refreshTokenTtl    How long a refresh token is accepted
+     */
+    public TokenService(JwtEncoder jwtEncoder,
+                        SecretKey tokenSigningKey,
+                        UserDetailsService userDetailsService,
+                        @Value("${token.issuer}") String issuer,
+                        @Value("${token.access-token-ttl:15m}") Duration accessTokenTtl,
+                        @Value("${token.refresh-token-ttl:8h}") Duration refreshTokenTtl) {
+        this.jwtEncoder = jwtEncoder;
+        this.refreshTokenDecoder = TokenConfig.tokenDecoder(tokenSigningKey, issuer, TokenConfig.REFRESH_TOKEN);
+        this.userDetailsService = userDetailsService;
+        this.issuer = issuer;
+        this.accessTokenTtl = accessTokenTtl;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    /**
+     * Issue tokens to a user who has just authenticated with their credentials
+     *
+     * @param authentication The authentication of the user
+     * @return The access and refresh tokens
+     */
+    public TokenResponse issueTokens(Authentication authentication) {
+        // The authentication holds the user's email only, the password hash is needed for the refresh token
+        return issueTokens(userDetailsService.loadUserByUsername(authentication.getName()));
+    }
+
+    /**
+     * Issue new tokens for a refresh token
+     *
+     * @param refreshToken The refresh token
+     * @return The access and refresh tokens
+     * @throws BadCredentialsException If the refresh token is invalid or expired, its user no longer exists or the user's
+     *                                 password changed since it was issued
+     */
+    public TokenResponse refreshTokens(String refreshToken) {
+        Jwt jwt;
+        try {
+            jwt = refreshTokenDecoder.decode(refreshToken);
+        } catch (JwtException ex) {
+            throw new BadCredentialsException("Invalid refresh token", ex);
+        }
+
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(jwt.getSubject());
+        } catch (UsernameNotFoundException ex) {
+            throw new BadCredentialsException("Invalid refresh token", ex);
+        }
+        userDetailsChecker.check(user);
+
+        String fingerprint = jwt.getClaimAsString(TokenConfig.PASSWORD_FINGERPRINT_CLAIM);
+        if (fingerprint == null
+                || !MessageDigest.isEqual(Base64.getUrlDecoder().decode(fingerprint), passwordFingerprint(user.getPassword()))) {
+            throw new BadCredentialsException("Refresh token was issued before the password changed");
+        }
+
+        return issueTokens(user);
+    }
+
+    /**
+     * Sign an access token and a refresh token for a user
+     *
+     * @param user The user
+     * @return The access and refresh tokens
+     */
+    private TokenResponse issueTokens(UserDetails user) {
+        Instant now = Instant.now();
+        String email = user.getUsername();
+        List<String> roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+
+        String accessToken = encode(JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(email)
+                .issuedAt(now)
+                .expiresAt(now.plus(accessTokenTtl))
+                .claim(TokenConfig.TOKEN_USE_CLAIM, TokenConfig.ACCESS_TOKEN)
+                .claim(TokenConfig.ROLES_CLAIM, roles)
+                .build());
+        String newRefreshToken = encode(JwtClaimsSet.builder()
+                .issuer(issuer)
+                .subject(email)
+                .id(UUID.randomUUID().toString())
+                .issuedAt(now)
+                .expiresAt(now.plus(refreshTokenTtl))
+                .claim(TokenConfig.TOKEN_USE_CLAIM, TokenConfig.REFRESH_TOKEN)
+                .claim(TokenConfig.PASSWORD_FINGERPRINT_CLAIM,
+                        Base64.getUrlEncoder().withoutPadding().encodeToString(passwordFingerprint(user.getPassword())))
+                .build());
+
+        return new TokenResponse(accessToken, accessTokenTtl.toSeconds(), newRefreshToken);
+    }
+
+    /**
+     * Hash a user's password hash, so that a refresh token can tell whether the password changed without revealing the
+     * stored hash; the token is signed, not encrypted
+     *
+     * @param passwordHash The stored password hash
+     * @return The SHA-256 digest of the hash
+     */
+    private static byte[] passwordFingerprint(String passwordHash) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(passwordHash.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Sign a token with HMAC-SHA256
+     *
+     * @param claims The claims of the token
+     * @return The serialized token
+     */
+    private String encode(JwtClaimsSet claims) {
+        return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims)).getTokenValue();
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.backend.service;
 
+import com.example.backend.config.CacheConfig;
 import com.example.backend.controller.AuthController;
 import com.example.backend.model.Faculty;
 import com.example.backend.model.Student;
-import com.example.backend.model.User;
 import com.example.backend.repository.FacultyRepository;
 import com.example.backend.repository.StudentRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import java.security.Principal;
@@ -17,14 +18,14 @@ public class UserService {
 
     private final StudentRepository studentRepository;
     private final FacultyRepository facultyRepository;
-    private final AuthService authService;
     private final AuthController authController;
+    private final DepartmentRoutingTable departmentRoutingTable;
 
-    public UserService(StudentRepository studentRepository, FacultyRepository facultyRepository, AuthService authService, AuthController authController) {
+    public UserService(StudentRepository studentRepository, FacultyRepository facultyRepository, AuthController authController, DepartmentRoutingTable departmentRoutingTable) {
         this.studentRepository = studentRepository;
         this.facultyRepository = facultyRepository;
-        this.authService = authService;
         this.authController = authController;
+        this.departmentRoutingTable = departmentRoutingTable;
     }
 
     /**
@@ -33,12 +34,11 @@ public class UserService {
      * @param principal      The currently logged-in user
      * @param updatedStudent The new student profile information
      */
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#principal.name.toLowerCase()")
     public void updateStudentProfile(Principal principal, Student updatedStudent) {
-        User user = authService.getUserByPrincipal(principal);
-
-        if (!(user instanceof Student student)) {
-            throw new IllegalArgumentException("User must be a student");
-        }
+        // Load a fresh copy, the cached user is shared between requests
+        Student student = studentRepository.findByEmail(principal.getName().toLowerCase())
+                .orElseThrow(() -> new IllegalArgumentException("User must be a student"));
 
         // Validate that phone number is 10 digits long
         if (!authController.isValidPhoneNumber(updatedStudent.getPhone())) {
@@ -59,12 +59,11 @@ public class UserService {
      * @param principal      The currently logged-in user
      * @param updatedFaculty The new faculty profile information
      */
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#principal.name.toLowerCase()")
     public void updateFacultyProfile(Principal principal, Faculty updatedFaculty) {
-        User user = authService.getUserByPrincipal(principal);
-
-        if (!(user instanceof Faculty faculty)) {
-            throw new IllegalArgumentException("User must be a faculty member");
-        }
+        // Load a fresh copy, the cached user is shared between requests
+        Faculty faculty = facultyRepository.findByEmail(principal.getName().toLowerCase())
+                .orElseThrow(() -> new IllegalArgumentException("User must be a faculty member"));
 
         // Validate that phone number is 10 digits long
         if (!authController.isValidPhoneNumber(updatedFaculty.getPhone())) {
@@ -74,9 +73,14 @@ public class UserService {
         faculty.setFirstName(updatedFaculty.getFirstName());
         faculty.setLastName(updatedFaculty.getLastName());
         faculty.setPhone(updatedFaculty.getPhone());
+        boolean departmentChanged = faculty.getDepartment() != updatedFaculty.getDepartment();
         faculty.setDepartment(updatedFaculty.getDepartment());
 
         facultyRepository.save(faculty);
+
+        if (departmentChanged) {
+            departmentRoutingTable.reload();
+        }
     }
 
 }
@@ -0,0 +1,95 @@
+package com.example.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the BoundedPasswordEncoder class
+ */
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.destroy();
+    }
+
+    /***
+     * This method is used to test the encode and matches methods
+     * They should hash and verify on the hashing threads and record the password.hash timer
+     */
+    @Test
+    void testEncodeAndMatches() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+    }
+
+    /***
+     * This method is used to test the upgradeEncoding method
+     * Hashes without an encoder id and hashes weaker than the configured strength should be upgraded
+     */
+    @Test
+    void testUpgradeEncoding() {
+        BCryptPasswordEncoder weak = new BCryptPasswordEncoder(4);
+        BCryptPasswordEncoder strong = new BCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", strong));
+        delegating.setDefaultPasswordEncoderForMatches(strong);
+        encoder = new BoundedPasswordEncoder(delegating, 1, 1, meterRegistry);
+
+        String legacyHash = weak.encode("secret");
+
+        assertTrue(encoder.matches("secret", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+        assertTrue(encoder.upgradeEncoding("{bcrypt}" + legacyHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+    }
+
+    /***
+     * This method is used to test the matches method
+     * when every hashing thread is busy and the queue is full; the password is rejected without waiting
+     */
+    @Test
+    void testMatches_queueFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = mock(PasswordEncoder.class);
+        when(slow.matches(any(), any())).thenAnswer(invocation -> release.await(10, TimeUnit.SECONDS));
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        verify(slow, timeout(5000)).matches("a", "hash");
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        while (meterRegistry.get("password.hash.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(AuthenticationServiceException.class, () -> encoder.matches("c", "hash"));
+        assertEquals(1, meterRegistry.get("password.hash.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/***
+ * This class is used to test the FragmentCacheProcessor class
+ */
+class FragmentCacheProcessorTest {
+
+    private static final String TEMPLATE = """
+            <div th:each="request : ${requests}"><p th:if="${request != 'hidden'}" th:attr="data-id=${request}"
+            cache:key="${'card-' + request + '-' + version}" th:text="${request + ' ' + status}"></p></div>""";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final Cache<String, String> cache = Caffeine.newBuilder().maximumSize(100).build();
+
+    /***
+     * This method is used to test the processor
+     * It should render an element once per key, and again when its key changes
+     */
+    @Test
+    void testRendersOncePerKey() {
+        SpringTemplateEngine templateEngine = templateEngine(cache);
+
+        String first = templateEngine.process(TEMPLATE, context(List.of("1", "hidden", "2"), 1, "open"));
+        String cached = templateEngine.process(TEMPLATE, context(List.of("1", "hidden", "2"), 1, "approved"));
+        String changed = templateEngine.process(TEMPLATE, context(List.of("1"), 2, "approved"));
+
+        assertEquals("<div><p data-id=\"1\">1 open</p></div><div></div><div><p data-id=\"2\">2 open</p></div>", first);
+        assertEquals(first, cached);
+        assertEquals("<div><p data-id=\"1\">1 approved</p></div>", changed);
+        assertEquals(3, renderCount());
+    }
+
+    /***
+     * This method is used to test the processor
+     * It should write the cached markup as it is, without inlining expressions in the rendered text
+     */
+    @Test
+    void testCachedMarkupIsNotInlined() {
+        SpringTemplateEngine templateEngine = templateEngine(cache);
+
+        templateEngine.process(TEMPLATE, context(List.of("[[${7*7}]]"), 1, "open"));
+        String cached = templateEngine.process(TEMPLATE, context(List.of("[[${7*7}]]"), 1, "open"));
+
+        assertEquals("<div><p data-id=\"[[${7*7}]]\">[[${7*7}]] open</p></div>", cached);
+    }
+
+    /***
+     * This method is used to test the processor
+     * when fragment caching is disabled; it should render the element every time
+     */
+    @Test
+    void testDisabled() {
+        SpringTemplateEngine templateEngine = templateEngine(null);
+
+        templateEngine.process(TEMPLATE, context(List.of("1"), 1, "open"));
+        String second = templateEngine.process(TEMPLATE, context(List.of("1"), 1, "approved"));
+
+        assertEquals("<div><p data-id=\"1\">1 approved</p></div>", second);
+        assertEquals(0, renderCount());
+    }
+
+    /***
+     * Create a template engine that reads templates from strings
+     *
+     * @param cache The fragment cache, or null to disable it
+     * @return The template engine
+     */
+    private SpringTemplateEngine templateEngine(Cache<String, String> cache) {
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(new StringTemplateResolver());
+        templateEngine.addDialect(new FragmentCacheDialect(cache, meterRegistry));
+        return templateEngine;
+    }
+
+    /***
+     * Create the context of a render
+     *
+     * @param requests The requests to render a card for
+     * @param version  The version of the requests
+     * @param status   The status of the requests
+     * @return The context
+     */
+    private Context context(List<String> requests, int version, String status) {
+        Context context = new Context();
+        context.setVariable("requests", requests);
+        context.setVariable("version", version);
+        context.setVariable("status", status);
+        return context;
+    }
+
+    /***
+     * Count the fragments rendered because they were not cached
+     *
+     * @return The number of renders
+     */
+    private long renderCount() {
+        return meterRegistry.find("view.fragment.render").timers().stream().mapToLong(Timer::count).sum();
+    }
+}
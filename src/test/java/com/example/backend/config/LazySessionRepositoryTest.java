@@ -0,0 +1,90 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the LazySessionRepository class
+ */
+class LazySessionRepositoryTest {
+
+    @SuppressWarnings("unchecked")
+    private final SessionRepository<MapSession> delegate = mock(SessionRepository.class);
+
+    private final LazySessionRepository<MapSession> repository = new LazySessionRepository<>(delegate, Duration.ofMinutes(1));
+
+    private MapSession stored;
+
+    /***
+     * This method is used to set up a stored session last accessed ten seconds ago
+     */
+    @BeforeEach
+    void setUp() {
+        stored = new MapSession("session-id");
+        stored.setLastAccessedTime(Instant.now().minusSeconds(10));
+        when(delegate.findById("session-id")).thenReturn(stored);
+    }
+
+    /***
+     * This method is used to test the save method
+     * when a request neither changed the session nor accessed it a touch interval after the last stored access
+     */
+    @Test
+    void testSave_unchanged() {
+        Instant lastAccessedTime = stored.getLastAccessedTime();
+        LazySessionRepository<MapSession>.LazySession session = repository.findById("session-id");
+        session.setLastAccessedTime(Instant.now());
+        repository.save(session);
+
+        assertEquals(lastAccessedTime, session.getLastAccessedTime());
+        verify(delegate, never()).save(any());
+    }
+
+    /***
+     * This method is used to test the save method
+     * when the stored last access time is older than the touch interval
+     */
+    @Test
+    void testSave_touched() {
+        stored.setLastAccessedTime(Instant.now().minus(Duration.ofMinutes(2)));
+        Instant now = Instant.now();
+        LazySessionRepository<MapSession>.LazySession session = repository.findById("session-id");
+        session.setLastAccessedTime(now);
+        repository.save(session);
+
+        assertEquals(now, stored.getLastAccessedTime());
+        verify(delegate).save(stored);
+    }
+
+    /***
+     * This method is used to test the save method
+     * when a request set an attribute; the session is saved once
+     */
+    @Test
+    void testSave_attributeChanged() {
+        LazySessionRepository<MapSession>.LazySession session = repository.findById("session-id");
+        session.setAttribute("name", "value");
+        repository.save(session);
+        repository.save(session);
+
+        assertEquals("value", stored.getAttribute("name"));
+        verify(delegate, times(1)).save(stored);
+    }
+
+    /***
+     * This method is used to test the findById method
+     * when the session does not exist
+     */
+    @Test
+    void testFindById_notFound() {
+        assertNull(repository.findById("unknown"));
+    }
+}
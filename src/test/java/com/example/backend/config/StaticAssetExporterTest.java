@@ -0,0 +1,57 @@
+package com.example.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the StaticAssetExporter class
+ */
+class StaticAssetExporterTest {
+
+    @TempDir
+    private Path exportDir;
+
+    private final ResourceUrlProvider resourceUrlProvider = mock(ResourceUrlProvider.class);
+
+    /***
+     * This method is used to test the export method
+     * It should write every static file under its plain and fingerprinted names, with a gzip variant of text files
+     */
+    @Test
+    void testExport() throws Exception {
+        when(resourceUrlProvider.getForLookupPath(anyString()))
+                .thenAnswer(invocation -> invocation.<String>getArgument(0).replace(".css", "-0123456789abcdef0123456789abcdef.css"));
+
+        new StaticAssetExporter(new PathMatchingResourcePatternResolver(), resourceUrlProvider, exportDir.toString()).export();
+
+        byte[] content = Files.readAllBytes(exportDir.resolve("css/sidebar.css"));
+        Path fingerprinted = exportDir.resolve("css/sidebar-0123456789abcdef0123456789abcdef.css");
+        assertArrayEquals(content, Files.readAllBytes(fingerprinted));
+        try (InputStream gzip = new GZIPInputStream(Files.newInputStream(Path.of(fingerprinted + ".gz")))) {
+            assertArrayEquals(content, gzip.readAllBytes());
+        }
+        assertTrue(Files.exists(exportDir.resolve("css/error.css.gz")));
+    }
+
+    /***
+     * This method is used to test the export method
+     * when no export directory is configured; the application serves the static files itself
+     */
+    @Test
+    void testExport_disabled() throws Exception {
+        new StaticAssetExporter(new PathMatchingResourcePatternResolver(), resourceUrlProvider, "").export();
+
+        verifyNoInteractions(resourceUrlProvider);
+    }
+}
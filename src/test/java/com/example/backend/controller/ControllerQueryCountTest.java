@@ -0,0 +1,112 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.KeysetCursor;
+import com.example.backend.support.QueryCountTestBase;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/***
+ * Guards the number of SQL statements of the main pages against a department with 500 requests.
+ * Loading the signed in user takes up to two statements, its row and its authorities; every other statement
+ * is listed next to its page. A page that loads something per request or per comment fails these tests.
+ */
+@Sql(scripts = "/sql/query-count-fixture.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class ControllerQueryCountTest extends QueryCountTestBase {
+
+    private static final RequestPostProcessor FACULTY = user("faculty@example.com").authorities(() -> "FACULTY");
+    private static final RequestPostProcessor STUDENT = user("student@example.com").authorities(() -> "STUDENT");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /***
+     * The faculty dashboard: the change stamp, one page of the queue and the department statistics row and histogram
+     */
+    @Test
+    void facultyDashboard() throws Exception {
+        assertMaxStatements(6, get("/dashboard").with(FACULTY));
+    }
+
+    /***
+     * The faculty dashboard, filtered and paged
+     */
+    @Test
+    void facultyDashboardFilteredPage() throws Exception {
+        assertMaxStatements(6, get("/dashboard").param("status", "open").param("size", "100").with(FACULTY));
+    }
+
+    /***
+     * The student dashboard: the change stamp and all 250 of the student's requests in one query
+     */
+    @Test
+    void studentDashboard() throws Exception {
+        assertMaxStatements(4, get("/dashboard").with(STUDENT));
+    }
+
+    /***
+     * Revalidating an unchanged dashboard: only the change stamp
+     */
+    @Test
+    void studentDashboardNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/dashboard").with(STUDENT)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult result = assertMaxStatements(3, get("/dashboard").header(HttpHeaders.IF_NONE_MATCH, etag).with(STUDENT));
+
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), result.getResponse().getStatus());
+    }
+
+    /***
+     * The request page: the version of the request, the request with its creator, and one page of comments with their authors
+     */
+    @Test
+    void requestPage() throws Exception {
+        assertMaxStatements(5, get("/request/{requestId}", requestWithComments()).with(FACULTY));
+    }
+
+    /***
+     * The fragment of older comments, which does not load the user
+     */
+    @Test
+    void olderComments() throws Exception {
+        String before = new KeysetCursor(LocalDateTime.of(2100, 1, 1, 0, 0), Long.MAX_VALUE).encode();
+        assertMaxStatements(1, get("/request/{requestId}/comments", requestWithComments())
+                .param("before", before).with(FACULTY));
+    }
+
+    /***
+     * The search page: one ranked query over reasons and comments
+     */
+    @Test
+    void search() throws Exception {
+        assertMaxStatements(3, get("/search").param("q", "library").with(FACULTY));
+    }
+
+    /***
+     * The statistics as JSON: the counters and the histogram
+     */
+    @Test
+    void statistics() throws Exception {
+        assertMaxStatements(4, get("/statistics").with(FACULTY));
+    }
+
+    /***
+     * The request of the fixture that has comments
+     *
+     * @return The request ID
+     */
+    private Integer requestWithComments() {
+        return jdbcTemplate.queryForObject("SELECT min(id) FROM requests", Integer.class);
+    }
+}
@@ -1,22 +1,30 @@
 package com.example.backend.controller;
 
 import com.example.backend.model.*;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.service.AuthService;
+import com.example.backend.service.ChangeStampService;
+import com.example.backend.service.DepartmentStatisticsService;
 import com.example.backend.service.RequestService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.ui.Model;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.security.Principal;
+import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 
 /***
@@ -25,23 +33,35 @@ import static org.mockito.ArgumentMatchers.anyList;
 class DashboardControllerTest {
 
     @Mock
-    private UserRepository userRepository;
+    private AuthService authService;
 
     @Mock
     private RequestService requestService;
 
+    @Mock
+    private DepartmentStatisticsService departmentStatisticsService;
+
+    @Mock
+    private ChangeStampService changeStampService;
+
     @Mock
     private Model model;
 
     @Mock
     private Principal principal;
 
+    private final FacultyQueueFilter filter = new FacultyQueueFilter();
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
     @InjectMocks
     private DashboardController dashboardController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(changeStampService.getDashboardStamp(any()))
+                .thenReturn(new ChangeStamp("student:student@example.com", 3, Instant.parse("2024-01-10T09:30:00Z")));
     }
 
     /***
@@ -50,11 +70,11 @@ class DashboardControllerTest {
      */
     @Test
     void dashboard_UserNotFound() {
-        when(principal.getName()).thenReturn("user@example.com");
-        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.empty());
+        when(authService.getUserByPrincipal(principal))
+                .thenThrow(new UsernameNotFoundException("User not found with email: user@example.com"));
 
         try {
-            dashboardController.dashboard(principal, model);
+            dashboardController.dashboard(principal, model, filter, webRequest(null));
         } catch (UsernameNotFoundException e) {
             assertEquals("User not found with email: user@example.com", e.getMessage());
         }
@@ -71,14 +91,19 @@ class DashboardControllerTest {
         Department department = Department.REGISTRARS_OFFICE;
         faculty.setDepartment(department);
 
-        when(principal.getName()).thenReturn("faculty@example.com");
-        when(userRepository.findByEmail("faculty@example.com")).thenReturn(Optional.of(faculty));
-        when(requestService.getFacultyRequests("faculty@example.com", department)).thenReturn(List.of(new CourseRegistrationRequest(), new StudentHousingRequest(), new LeaveOfAbsenceRequest()));
+        when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
+        KeysetPage<RequestSummary> queuePage = new KeysetPage<>(List.of(
+                summaryOfType("course_registration"), summaryOfType("student_housing"), summaryOfType("leave_of_absence")), null, null);
+        when(requestService.getFacultyQueue(faculty, filter)).thenReturn(queuePage);
+        DepartmentStatisticsReport statistics = mock(DepartmentStatisticsReport.class);
+        when(departmentStatisticsService.getStatistics(department)).thenReturn(statistics);
 
-        String result = dashboardController.dashboard(principal, model);
+        String result = dashboardController.dashboard(principal, model, filter, webRequest(null));
 
         assertEquals("dashboard", result);
         verify(model).addAttribute("user", faculty);
+        verify(model).addAttribute("queuePage", queuePage);
+        verify(model).addAttribute("statistics", statistics);
         verify(model).addAttribute(eq("courseRequests"), anyList());
         verify(model).addAttribute(eq("housingRequests"), anyList());
         verify(model).addAttribute(eq("leaveRequests"), anyList());
@@ -94,19 +119,92 @@ class DashboardControllerTest {
         Student student = new Student();
         student.setEmail("student@example.com");
 
-        when(principal.getName()).thenReturn("student@example.com");
-        when(userRepository.findByEmail("student@example.com")).thenReturn(Optional.of(student));
-        when(requestService.getCourseRegistrationRequests("student@example.com")).thenReturn(List.of(new CourseRegistrationRequest()));
-        when(requestService.getStudentHousingRequests("student@example.com")).thenReturn(List.of(new StudentHousingRequest()));
-        when(requestService.getLeaveOfAbsenceRequests("student@example.com")).thenReturn(List.of(new LeaveOfAbsenceRequest()));
+        when(authService.getUserByPrincipal(principal)).thenReturn(student);
+        DashboardRequests dashboardRequests = DashboardRequests.from(List.of(
+                summaryOfType("course_registration"), summaryOfType("student_housing"), summaryOfType("leave_of_absence")));
+        when(requestService.getStudentDashboardRequests("student@example.com")).thenReturn(dashboardRequests);
 
-        String result = dashboardController.dashboard(principal, model);
+        String result = dashboardController.dashboard(principal, model, filter, webRequest(null));
 
         assertEquals("dashboard", result);
         verify(model).addAttribute("user", student);
+        verifyNoInteractions(departmentStatisticsService);
         verify(model).addAttribute(eq("courseRequests"), anyList());
         verify(model).addAttribute(eq("housingRequests"), anyList());
         verify(model).addAttribute(eq("leaveRequests"), anyList());
         verify(model).addAttribute("activePage", "dashboard");
+        assertEquals("private, no-cache", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    /***
+     * Test the dashboard method
+     * Test that the method answers with 304 Not Modified and loads nothing when the browser's copy is current
+     */
+    @Test
+    void dashboard_NotModified() {
+        Student student = new Student();
+        student.setEmail("student@example.com");
+        when(authService.getUserByPrincipal(principal)).thenReturn(student);
+        when(requestService.getStudentDashboardRequests("student@example.com")).thenReturn(DashboardRequests.from(List.of()));
+
+        dashboardController.dashboard(principal, model, filter, webRequest(null));
+        String etag = response.getHeader(HttpHeaders.ETAG);
+
+        String result = dashboardController.dashboard(principal, model, filter, webRequest(etag));
+
+        assertNull(result);
+        assertEquals(304, response.getStatus());
+        verify(requestService, times(1)).getStudentDashboardRequests("student@example.com");
+    }
+
+    /***
+     * Test the dashboard method
+     * Test that the dashboard is rendered again after a faculty member moved to a department at the same version
+     */
+    @Test
+    void dashboard_DepartmentChanged() {
+        Faculty faculty = new Faculty();
+        faculty.setEmail("faculty@example.com");
+        faculty.setDepartment(Department.HOUSING_OFFICE);
+        when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
+        when(changeStampService.getDashboardStamp(faculty)).thenAnswer(invocation ->
+                new ChangeStamp(ChangeStamp.departmentScope(faculty.getDepartment()), 0, Instant.EPOCH));
+        when(requestService.getFacultyQueue(faculty, filter)).thenReturn(new KeysetPage<>(List.of(), null, null));
+
+        dashboardController.dashboard(principal, model, filter, webRequest(null));
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        faculty.setDepartment(Department.REGISTRARS_OFFICE);
+
+        String result = dashboardController.dashboard(principal, model, filter, webRequest(etag));
+
+        assertEquals("dashboard", result);
+        verify(requestService, times(2)).getFacultyQueue(faculty, filter);
+        verify(departmentStatisticsService).getStatistics(Department.REGISTRARS_OFFICE);
+    }
+
+    /***
+     * Create the web request of a GET of the dashboard, answered in the shared response
+     *
+     * @param ifNoneMatch The ETag of the browser's copy, or null if it has none
+     * @return The web request
+     */
+    private ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+
+    /***
+     * Create a request summary of the given type
+     *
+     * @param type The request type
+     * @return The request summary
+     */
+    private RequestSummary summaryOfType(String type) {
+        RequestSummary summary = mock(RequestSummary.class);
+        when(summary.getType()).thenReturn(type);
+        return summary;
     }
 }
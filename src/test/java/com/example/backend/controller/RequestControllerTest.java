@@ -3,11 +3,13 @@ package com.example.backend.controller;
 import com.example.backend.model.Comment;
 import com.example.backend.model.Faculty;
 import com.example.backend.model.Request;
+import com.example.backend.model.RequestVersion;
+import com.example.backend.model.RequestStatus;
+import com.example.backend.model.StatusChangeResult;
 import com.example.backend.model.Student;
-import com.example.backend.repository.CommentRepository;
 import com.example.backend.repository.RequestRepository;
 import com.example.backend.service.AuthService;
-import com.example.backend.service.EmailService;
+import com.example.backend.service.RequestService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,9 +17,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.ui.Model;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
 import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 /***
@@ -29,14 +44,11 @@ public class RequestControllerTest {
     @Mock
     private RequestRepository requestRepository;
 
-    @Mock
-    private CommentRepository commentRepository;
-
     @Mock
     private AuthService authService;
 
     @Mock
-    private EmailService emailService;
+    private RequestService requestService;
 
     @InjectMocks
     private RequestController requestController;
@@ -76,9 +88,7 @@ public class RequestControllerTest {
         assertEquals("redirect:/request/1", result);
         verify(requestRepository).getRequestById(requestId);
         verify(authService).getUserByPrincipal(principal);
-        verify(commentRepository).save(comment);
-        assertEquals(request, comment.getRequest());
-        assertEquals(student, comment.getUser());
+        verify(requestService).addComment(request, student, comment);
     }
 
     /***
@@ -95,7 +105,7 @@ public class RequestControllerTest {
         String result = requestController.createComment(requestId, principal, comment);
 
         assertEquals("redirect:/request/" + requestId, result);
-        verify(commentRepository, never()).save(comment);
+        verify(requestService, never()).addComment(any(), any(), any());
     }
 
     /***
@@ -107,15 +117,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(student);
-        when(requestRepository.getRequestById(requestId)).thenReturn(request);
-        doNothing().when(emailService).sendRequestStatusChangeToStudent(request);
+        when(requestService.updateRequestStatus(student, requestId, RequestStatus.WITHDRAWN))
+                .thenReturn(StatusChangeResult.CHANGED);
 
         String result = requestController.withdrawRequest(requestId, principal);
 
         assertEquals("redirect:/request/1", result);
-        verify(requestRepository).getRequestById(requestId);
-        verify(requestRepository).save(request);
-        assertEquals("withdrawn", request.getStatus());
     }
 
     /***
@@ -127,12 +134,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(student);
-        when(requestRepository.getRequestById(requestId)).thenReturn(null);
+        when(requestService.updateRequestStatus(student, requestId, RequestStatus.WITHDRAWN))
+                .thenReturn(StatusChangeResult.NOT_FOUND);
 
         String result = requestController.withdrawRequest(requestId, principal);
 
         assertEquals("redirect:/request/" + requestId, result);
-        verify(requestRepository, never()).save(any(Request.class));
     }
 
     /***
@@ -144,11 +151,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
+        when(requestService.updateRequestStatus(faculty, requestId, RequestStatus.WITHDRAWN))
+                .thenReturn(StatusChangeResult.NOT_ALLOWED);
 
         String result = requestController.withdrawRequest(requestId, principal);
 
         assertEquals("redirect:/request/" + requestId + "?error=unauthorized", result);
-        verify(requestRepository, never()).save(any(Request.class));
     }
 
     /***
@@ -160,15 +168,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
-        when(requestRepository.getRequestById(requestId)).thenReturn(request);
-        doNothing().when(emailService).sendRequestStatusChangeToStudent(request);
+        when(requestService.updateRequestStatus(faculty, requestId, RequestStatus.APPROVED))
+                .thenReturn(StatusChangeResult.CHANGED);
 
         String result = requestController.approveRequest(requestId, principal);
 
         assertEquals("redirect:/request/1", result);
-        verify(requestRepository).getRequestById(requestId);
-        verify(requestRepository).save(request);
-        assertEquals("approved", request.getStatus());
     }
 
     /***
@@ -180,12 +185,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
-        when(requestRepository.getRequestById(requestId)).thenReturn(null);
+        when(requestService.updateRequestStatus(faculty, requestId, RequestStatus.APPROVED))
+                .thenReturn(StatusChangeResult.NOT_FOUND);
 
         String result = requestController.approveRequest(requestId, principal);
 
         assertEquals("redirect:/request/" + requestId, result);
-        verify(requestRepository, never()).save(any(Request.class));
     }
 
     /***
@@ -197,11 +202,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(student);
+        when(requestService.updateRequestStatus(student, requestId, RequestStatus.APPROVED))
+                .thenReturn(StatusChangeResult.NOT_ALLOWED);
 
         String result = requestController.approveRequest(requestId, principal);
 
         assertEquals("redirect:/request/" + requestId + "?error=unauthorized", result);
-        verify(requestRepository, never()).save(any(Request.class));
     }
 
     /***
@@ -213,15 +219,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
-        when(requestRepository.getRequestById(requestId)).thenReturn(request);
-        doNothing().when(emailService).sendRequestStatusChangeToStudent(request);
+        when(requestService.updateRequestStatus(faculty, requestId, RequestStatus.REJECTED))
+                .thenReturn(StatusChangeResult.CHANGED);
 
         String result = requestController.rejectRequest(requestId, principal);
 
         assertEquals("redirect:/request/1", result);
-        verify(requestRepository).getRequestById(requestId);
-        verify(requestRepository).save(request);
-        assertEquals("rejected", request.getStatus());
     }
 
     /***
@@ -233,12 +236,12 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
-        when(requestRepository.getRequestById(requestId)).thenReturn(null);
+        when(requestService.updateRequestStatus(faculty, requestId, RequestStatus.REJECTED))
+                .thenReturn(StatusChangeResult.NOT_FOUND);
 
         String result = requestController.rejectRequest(requestId, principal);
 
         assertEquals("redirect:/request/" + requestId, result);
-        verify(requestRepository, never()).save(any(Request.class));
     }
 
     /***
@@ -250,11 +253,136 @@ public class RequestControllerTest {
         Integer requestId = 1;
 
         when(authService.getUserByPrincipal(principal)).thenReturn(student);
+        when(requestService.updateRequestStatus(student, requestId, RequestStatus.REJECTED))
+                .thenReturn(StatusChangeResult.NOT_ALLOWED);
 
         String result = requestController.rejectRequest(requestId, principal);
 
         assertEquals("redirect:/request/" + requestId + "?error=unauthorized", result);
-        verify(requestRepository, never()).save(any(Request.class));
     }
 
+    /***
+     * Test the approveRequest method
+     * Test that the method tells the user when the request was already decided by someone else
+     */
+    @Test
+    void testApproveRequest_alreadyDecided() {
+        Integer requestId = 1;
+
+        when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
+        when(requestService.updateRequestStatus(faculty, requestId, RequestStatus.APPROVED))
+                .thenReturn(StatusChangeResult.ALREADY_DECIDED);
+
+        String result = requestController.approveRequest(requestId, principal);
+
+        assertEquals("redirect:/request/" + requestId + "?error=alreadyDecided", result);
+    }
+
+    /***
+     * Test the bulkUpdateStatus method
+     * Test that the method reports how many of the selected requests were changed
+     */
+    @Test
+    void testBulkUpdateStatus_success() {
+        RedirectAttributes redirectAttributes = mock(RedirectAttributes.class);
+        List<Integer> requestIds = List.of(1, 2, 3);
+
+        when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
+        when(requestService.bulkUpdateStatus(faculty, requestIds, RequestStatus.APPROVED)).thenReturn(2);
+
+        String result = requestController.bulkUpdateStatus(requestIds, RequestStatus.APPROVED, principal, redirectAttributes);
+
+        assertEquals("redirect:/dashboard", result);
+        verify(redirectAttributes).addFlashAttribute("successMessage", "2 of 3 selected requests approved.");
+    }
+
+    /***
+     * Test the bulkUpdateStatus method
+     * Test that the method shows the error when the user may not take the action
+     */
+    @Test
+    void testBulkUpdateStatus_notAllowed() {
+        RedirectAttributes redirectAttributes = mock(RedirectAttributes.class);
+
+        when(authService.getUserByPrincipal(principal)).thenReturn(faculty);
+        when(requestService.bulkUpdateStatus(faculty, List.of(1), RequestStatus.WITHDRAWN))
+                .thenThrow(new IllegalArgumentException("Only students can withdraw requests."));
+
+        String result = requestController.bulkUpdateStatus(List.of(1), RequestStatus.WITHDRAWN, principal, redirectAttributes);
+
+        assertEquals("redirect:/dashboard", result);
+        verify(redirectAttributes).addFlashAttribute("errorMessage", "Only students can withdraw requests.");
+    }
+
+    /***
+     * Test the requestPage method
+     * Test that the method answers with 304 Not Modified without loading the request when the browser's copy is current
+     */
+    @Test
+    void testRequestPage_notModified() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestVersion version = version(2);
+        when(authService.getUserByPrincipal(principal)).thenReturn(student);
+        when(requestService.getRequestVersion(1)).thenReturn(Optional.of(version));
+        when(requestService.getRequestWithCreator(1)).thenReturn(request);
+
+        String first = requestController.requestPage(1, principal, mock(Model.class), webRequest(null, response));
+        String etag = response.getHeader(HttpHeaders.ETAG);
+        String second = requestController.requestPage(1, principal, mock(Model.class), webRequest(etag, response));
+
+        assertEquals("request-page", first);
+        assertNull(second);
+        assertEquals(304, response.getStatus());
+        verify(requestService, times(1)).getRequestWithCreator(1);
+    }
+
+    /***
+     * Test the requestPage method
+     * Test that the method renders the page again when it shows a flash message, even if the request has not changed
+     */
+    @Test
+    void testRequestPage_flashMessage() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestVersion version = version(2);
+        when(authService.getUserByPrincipal(principal)).thenReturn(student);
+        when(requestService.getRequestVersion(1)).thenReturn(Optional.of(version));
+        when(requestService.getRequestWithCreator(1)).thenReturn(request);
+
+        requestController.requestPage(1, principal, mock(Model.class), webRequest(null, response));
+        ServletWebRequest revalidation = webRequest(response.getHeader(HttpHeaders.ETAG), new MockHttpServletResponse());
+        revalidation.setAttribute(DispatcherServlet.INPUT_FLASH_MAP_ATTRIBUTE, new FlashMap(), ServletWebRequest.SCOPE_REQUEST);
+
+        String result = requestController.requestPage(1, principal, mock(Model.class), revalidation);
+
+        assertEquals("request-page", result);
+        assertNull(revalidation.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    /***
+     * Create the version of the request; call it before stubbing the method that returns it, not inside thenReturn
+     *
+     * @param version The version number
+     * @return The version
+     */
+    private RequestVersion version(int version) {
+        RequestVersion requestVersion = mock(RequestVersion.class);
+        when(requestVersion.getVersion()).thenReturn(version);
+        when(requestVersion.getUpdatedAt()).thenReturn(Instant.parse("2024-01-10T09:30:00Z"));
+        return requestVersion;
+    }
+
+    /***
+     * Create the web request of a GET of the request page
+     *
+     * @param ifNoneMatch The ETag of the browser's copy, or null if it has none
+     * @param response    The response
+     * @return The web request
+     */
+    private ServletWebRequest webRequest(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/request/1");
+        if (ifNoneMatch != null) {
+            servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(servletRequest, response);
+    }
 }
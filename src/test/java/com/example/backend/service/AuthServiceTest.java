@@ -35,6 +35,9 @@ class AuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DepartmentRoutingTable departmentRoutingTable;
+
     @InjectMocks
     private AuthService authService;
 
@@ -83,6 +86,7 @@ class AuthServiceTest {
         authService.registerFaculty(signupRequest);
 
         verify(facultyRepository, times(1)).save(any(Faculty.class));
+        verify(departmentRoutingTable).reload();
     }
 
     /***
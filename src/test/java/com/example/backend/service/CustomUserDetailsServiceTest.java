@@ -1,5 +1,6 @@
 package com.example.backend.service;
 
+import com.example.backend.model.Student;
 import com.example.backend.model.User;
 import com.example.backend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -57,4 +58,22 @@ class CustomUserDetailsServiceTest {
         assertThrows(UsernameNotFoundException.class, () -> customUserDetailsService.loadUserByUsername("nonexistent@example.com"));
         verify(userRepository, times(1)).findByEmail("nonexistent@example.com");
     }
-}
\ No newline at end of file
+
+    /***
+     * This method tests the updatePassword method of the CustomUserDetailsService class
+     * It should store the new hash of the user who signed in
+     */
+    @Test
+    void updatePassword_UserExists_StoresNewHash() {
+        User user = new Student();
+        user.setEmail("user@example.com");
+        user.setPassword("$2a$04$old");
+        when(userRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        UserDetails updated = customUserDetailsService.updatePassword(user, "{bcrypt}$2a$10$new");
+
+        assertEquals("{bcrypt}$2a$10$new", updated.getPassword());
+        verify(userRepository, times(1)).save(user);
+    }
+}
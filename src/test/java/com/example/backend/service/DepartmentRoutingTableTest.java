@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Department;
+import com.example.backend.model.FacultyRoute;
+import com.example.backend.repository.FacultyRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the DepartmentRoutingTable class
+ */
+@ExtendWith(MockitoExtension.class)
+class DepartmentRoutingTableTest {
+
+    @Mock
+    private FacultyRepository facultyRepository;
+
+    @InjectMocks
+    private DepartmentRoutingTable departmentRoutingTable;
+
+    /***
+     * This method is used to test the getReviewers method
+     * It should return every faculty member of the department
+     */
+    @Test
+    void testGetReviewers_multipleReviewers() {
+        when(facultyRepository.findAllRoutes()).thenReturn(List.of(
+                route("housing1@example.com", Department.HOUSING_OFFICE),
+                route("registrar@example.com", Department.REGISTRARS_OFFICE),
+                route("housing2@example.com", Department.HOUSING_OFFICE)));
+
+        departmentRoutingTable.reload();
+
+        assertEquals(List.of("housing1@example.com", "housing2@example.com"), departmentRoutingTable.getReviewers(Department.HOUSING_OFFICE));
+        assertEquals(List.of("registrar@example.com"), departmentRoutingTable.getReviewers(Department.REGISTRARS_OFFICE));
+    }
+
+    /***
+     * This method is used to test the getReviewers method
+     * when the department has no faculty members
+     */
+    @Test
+    void testGetReviewers_noReviewers() {
+        when(facultyRepository.findAllRoutes()).thenReturn(List.of(route("registrar@example.com", Department.REGISTRARS_OFFICE)));
+
+        departmentRoutingTable.reload();
+
+        assertTrue(departmentRoutingTable.getReviewers(Department.STUDENT_AFFAIRS).isEmpty());
+    }
+
+    /***
+     * This method is used to test the reload method
+     * A faculty member who changed department should only be routed to the new one
+     */
+    @Test
+    void testReload_departmentChanged() {
+        when(facultyRepository.findAllRoutes())
+                .thenReturn(List.of(route("faculty@example.com", Department.HOUSING_OFFICE)))
+                .thenReturn(List.of(route("faculty@example.com", Department.STUDENT_AFFAIRS)));
+
+        departmentRoutingTable.reload();
+        departmentRoutingTable.reload();
+
+        assertTrue(departmentRoutingTable.getReviewers(Department.HOUSING_OFFICE).isEmpty());
+        assertEquals(List.of("faculty@example.com"), departmentRoutingTable.getReviewers(Department.STUDENT_AFFAIRS));
+    }
+
+    /***
+     * Create the route of a faculty member
+     *
+     * @param email      The faculty member's email
+     * @param department The faculty member's department
+     * @return The route
+     */
+    private FacultyRoute route(String email, Department department) {
+        return new Route(email, department);
+    }
+
+    /***
+     * A faculty route built in memory; a mock stubbed inside another stubbing would leave the outer one unfinished
+     */
+    private record Route(String email, Department department) implements FacultyRoute {
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public Department getDepartment() {
+            return department;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.backend.service;
+
+import com.example.backend.model.*;
+import com.example.backend.repository.DepartmentStatisticsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the DepartmentStatisticsService class
+ */
+@ExtendWith(MockitoExtension.class)
+class DepartmentStatisticsServiceTest {
+
+    @Mock
+    private DepartmentStatisticsRepository departmentStatisticsRepository;
+
+    @InjectMocks
+    private DepartmentStatisticsService departmentStatisticsService;
+
+    /***
+     * This method is used to test the getStatistics method
+     * It should combine the counters with the percentiles of the decision time histogram
+     */
+    @Test
+    void testGetStatistics() {
+        DepartmentStatistics statistics = new DepartmentStatistics();
+        statistics.setDepartment(Department.HOUSING_OFFICE);
+        statistics.setOpenCount(4);
+        statistics.setApprovedCount(7);
+        statistics.setRejectedCount(3);
+        when(departmentStatisticsRepository.findById(Department.HOUSING_OFFICE)).thenReturn(Optional.of(statistics));
+        // 5 decisions within an hour, 4 within a day and 1 after 30 days
+        List<LatencyBucketCount> buckets = List.of(bucket(0, 5L), bucket(3, 4L), bucket(9, 1L));
+        when(departmentStatisticsRepository.findDecisionLatency(Department.HOUSING_OFFICE.ordinal())).thenReturn(buckets);
+
+        DepartmentStatisticsReport report = departmentStatisticsService.getStatistics(Department.HOUSING_OFFICE);
+
+        assertEquals(4, report.getOpen());
+        assertEquals(7, report.getApproved());
+        assertEquals(10, report.getDecisions());
+        assertEquals(1L, report.getMedianDecisionTime().getUpperBoundHours());
+        assertEquals("within 1 day", report.getP90DecisionTime().getLabel());
+        assertNull(report.getP99DecisionTime().getUpperBoundHours());
+        assertEquals("after 30 days or more", report.getP99DecisionTime().getLabel());
+        assertEquals(DecisionLatencyHistogram.BUCKET_COUNT, report.getDecisionTimes().size());
+    }
+
+    /***
+     * This method is used to test the getStatistics method
+     * for a department without any requests
+     */
+    @Test
+    void testGetStatistics_noRequests() {
+        when(departmentStatisticsRepository.findById(Department.REGISTRARS_OFFICE)).thenReturn(Optional.empty());
+        when(departmentStatisticsRepository.findDecisionLatency(Department.REGISTRARS_OFFICE.ordinal())).thenReturn(List.of());
+
+        DepartmentStatisticsReport report = departmentStatisticsService.getStatistics(Department.REGISTRARS_OFFICE);
+
+        assertEquals(0, report.getOpen());
+        assertEquals(0, report.getDecisions());
+        assertNull(report.getMedianDecisionTime());
+    }
+
+    /***
+     * This method is used to test the recordNewRequests and recordStatusChanges methods
+     * They should add to the counters with one statement per department and one per status change
+     */
+    @Test
+    void testRecordChanges() {
+        DecidedRequest first = decided(1);
+        DecidedRequest second = decided(2);
+
+        departmentStatisticsService.recordNewRequests(Map.of(Department.HOUSING_OFFICE, 3L));
+        departmentStatisticsService.recordStatusChanges(List.of(first, second));
+        departmentStatisticsService.recordStatusChanges(List.of());
+
+        verify(departmentStatisticsRepository).addOpenRequests(Department.HOUSING_OFFICE.ordinal(), 3L);
+        verify(departmentStatisticsRepository).recordStatusChanges(List.of(1, 2));
+        verifyNoMoreInteractions(departmentStatisticsRepository);
+    }
+
+    /***
+     * This method is used to test the rebuild method
+     * It should lock the requests before replacing the statistics
+     */
+    @Test
+    void testRebuild() {
+        departmentStatisticsService.rebuild();
+
+        InOrder inOrder = inOrder(departmentStatisticsRepository);
+        inOrder.verify(departmentStatisticsRepository).lockRequests();
+        inOrder.verify(departmentStatisticsRepository).deleteAllInBatch();
+        inOrder.verify(departmentStatisticsRepository).deleteDecisionLatency();
+        inOrder.verify(departmentStatisticsRepository).rebuildCounts();
+        inOrder.verify(departmentStatisticsRepository).rebuildDecisionLatency();
+    }
+
+    /***
+     * This method is used to test the rebuildIfEmpty method
+     * when the statistics have already been built
+     */
+    @Test
+    void testRebuildIfEmpty_alreadyBuilt() {
+        when(departmentStatisticsRepository.count()).thenReturn(3L);
+
+        departmentStatisticsService.rebuildIfEmpty();
+
+        verify(departmentStatisticsRepository, never()).lockRequests();
+    }
+
+    /***
+     * Create a histogram bucket count
+     *
+     * @param bucket    The bucket
+     * @param decisions The number of decisions in the bucket
+     * @return The bucket count
+     */
+    private LatencyBucketCount bucket(Integer bucket, Long decisions) {
+        LatencyBucketCount count = mock(LatencyBucketCount.class);
+        when(count.getBucket()).thenReturn(bucket);
+        when(count.getDecisions()).thenReturn(decisions);
+        return count;
+    }
+
+    /***
+     * Create a changed request
+     *
+     * @param id The request ID
+     * @return The changed request
+     */
+    private DecidedRequest decided(Integer id) {
+        DecidedRequest decided = mock(DecidedRequest.class);
+        when(decided.getId()).thenReturn(id);
+        return decided;
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.backend.service;
+
+import com.example.backend.model.EmailOutbox;
+import com.example.backend.model.OutboxStatus;
+import com.example.backend.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the EmailOutboxDispatcher class
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private MailSender mailSender;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmailOutboxDispatcher dispatcher;
+
+    /***
+     * Set up a dispatcher that gives up after three attempts
+     */
+    @BeforeEach
+    void setUp() {
+        SimpleMailMessage templateMessage = new SimpleMailMessage();
+        templateMessage.setFrom("noreply@example.com");
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, templateMessage, transactionManager,
+                10, 3, Duration.ofSeconds(30), Duration.ofMinutes(5), meterRegistry);
+    }
+
+    /***
+     * This method is used to test the dispatchBatch method
+     * It should send the email and mark it as sent
+     */
+    @Test
+    void testDispatchBatch_sent() {
+        EmailOutbox email = new EmailOutbox("student@example.com", "Request Status", "Request number 1 has been approved");
+        // Set by @PrePersist when the email is queued
+        email.setCreatedAt(Instant.now().minusSeconds(5));
+        when(emailOutboxRepository.lockDueBatch(10)).thenReturn(List.of(email));
+
+        int dispatched = dispatcher.dispatchBatch();
+
+        ArgumentCaptor<SimpleMailMessage[]> messages = ArgumentCaptor.forClass(SimpleMailMessage[].class);
+        verify(mailSender).send(messages.capture());
+        SimpleMailMessage message = messages.getValue()[0];
+        assertEquals(1, dispatched);
+        assertEquals("noreply@example.com", message.getFrom());
+        assertArrayEquals(new String[]{"student@example.com"}, message.getTo());
+        assertEquals("Request Status", message.getSubject());
+        assertEquals(OutboxStatus.SENT, email.getStatus());
+        assertNotNull(email.getSentAt());
+        assertEquals(1, meterRegistry.counter("mail.outbox.emails", "outcome", "sent").count());
+        assertEquals(1, meterRegistry.timer("mail.outbox.delay").count());
+    }
+
+    /***
+     * This method is used to test the dispatchBatch method
+     * when the SMTP server is unavailable: the email should be retried later
+     */
+    @Test
+    void testDispatchBatch_retriesWithBackoff() {
+        EmailOutbox email = new EmailOutbox("student@example.com", "Request Status", "text");
+        email.setAttempts(1);
+        when(emailOutboxRepository.lockDueBatch(10)).thenReturn(List.of(email));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        Instant before = Instant.now();
+        dispatcher.dispatchBatch();
+
+        assertEquals(OutboxStatus.PENDING, email.getStatus());
+        assertEquals(2, email.getAttempts());
+        assertEquals("Connection refused", email.getLastError());
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(60)));
+        assertEquals(1, meterRegistry.counter("mail.outbox.emails", "outcome", "retried").count());
+    }
+
+    /***
+     * This method is used to test the dispatchBatch method
+     * when the email runs out of attempts: it should be dead-lettered
+     */
+    @Test
+    void testDispatchBatch_deadAfterMaxAttempts() {
+        EmailOutbox email = new EmailOutbox("student@example.com", "Request Status", "text");
+        email.setAttempts(2);
+        when(emailOutboxRepository.lockDueBatch(10)).thenReturn(List.of(email));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(OutboxStatus.DEAD, email.getStatus());
+        assertEquals(3, email.getAttempts());
+        assertEquals(1, meterRegistry.counter("mail.outbox.emails", "outcome", "dead").count());
+    }
+
+    /***
+     * This method is used to test the dispatchBatch method
+     * when the email can never be sent: it should be dead-lettered on the first attempt
+     */
+    @Test
+    void testDispatchBatch_deadOnPermanentFailure() {
+        EmailOutbox email = new EmailOutbox("not an address", "Request Status", "text");
+        when(emailOutboxRepository.lockDueBatch(10)).thenReturn(List.of(email));
+        doThrow(new MailParseException("Illegal address")).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(OutboxStatus.DEAD, email.getStatus());
+        assertEquals(1, email.getAttempts());
+    }
+
+    /***
+     * This method is used to test the dispatchBatch method
+     * when one message of the batch fails: only that email should be retried
+     */
+    @Test
+    void testDispatchBatch_partialFailure() {
+        EmailOutbox sent = new EmailOutbox("student@example.com", "Request Status", "text");
+        EmailOutbox failed = new EmailOutbox("faculty@example.com", "Request Status", "text");
+        when(emailOutboxRepository.lockDueBatch(10)).thenReturn(List.of(sent, failed));
+        doAnswer(invocation -> {
+            // Mockito expands varargs, the raw argument is the array passed to send; its order is not the batch's
+            SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+            SimpleMailMessage failedMessage = Arrays.stream(messages)
+                    .filter(message -> "faculty@example.com".equals(message.getTo()[0]))
+                    .findFirst().orElseThrow();
+            throw new MailSendException(Map.<Object, Exception>of(failedMessage, new MessagingException("Mailbox unavailable")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(OutboxStatus.SENT, sent.getStatus());
+        assertEquals(OutboxStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertEquals("Mailbox unavailable", failed.getLastError());
+    }
+
+    /***
+     * This method is used to test the dispatchBatch method
+     * when one message of the batch cannot be built: the other emails should still be sent
+     */
+    @Test
+    void testDispatchBatch_malformedMessageIsolated() {
+        EmailOutbox valid = new EmailOutbox("student@example.com", "Request Status", "text");
+        EmailOutbox malformed = new EmailOutbox("not an address", "Request Status", "text");
+        when(emailOutboxRepository.lockDueBatch(10)).thenReturn(List.of(valid, malformed));
+        doAnswer(invocation -> {
+            // Mockito expands varargs, the raw argument is the array passed to send
+            SimpleMailMessage[] messages = (SimpleMailMessage[]) invocation.getRawArguments()[0];
+            for (SimpleMailMessage message : messages) {
+                if ("not an address".equals(message.getTo()[0])) {
+                    throw new MailParseException("Illegal address");
+                }
+            }
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        dispatcher.dispatchBatch();
+
+        assertEquals(OutboxStatus.SENT, valid.getStatus());
+        assertEquals(OutboxStatus.DEAD, malformed.getStatus());
+    }
+
+    /***
+     * This method is used to test the backoff method
+     * The delay should double with every attempt up to the maximum
+     */
+    @Test
+    void testBackoff() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(240), dispatcher.backoff(4));
+        assertEquals(Duration.ofMinutes(5), dispatcher.backoff(10));
+    }
+}
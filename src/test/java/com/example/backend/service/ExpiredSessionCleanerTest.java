@@ -0,0 +1,46 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the ExpiredSessionCleaner class
+ */
+@ExtendWith(MockitoExtension.class)
+class ExpiredSessionCleanerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    /***
+     * This method is used to test the deleteExpiredSessions method
+     * It should delete batches until a batch is not full
+     */
+    @Test
+    void testDeleteExpiredSessions() {
+        when(jdbcTemplate.update(anyString(), anyLong(), eq(2))).thenReturn(2, 2, 1);
+
+        new ExpiredSessionCleaner(jdbcTemplate, 2).deleteExpiredSessions();
+
+        verify(jdbcTemplate, times(3)).update(contains("FOR UPDATE SKIP LOCKED"), anyLong(), eq(2));
+    }
+
+    /***
+     * This method is used to test the deleteExpiredSessions method
+     * when no session has expired
+     */
+    @Test
+    void testDeleteExpiredSessions_none() {
+        when(jdbcTemplate.update(anyString(), anyLong(), eq(1000))).thenReturn(0);
+
+        new ExpiredSessionCleaner(jdbcTemplate, 1000).deleteExpiredSessions();
+
+        verify(jdbcTemplate, times(1)).update(anyString(), anyLong(), eq(1000));
+    }
+}
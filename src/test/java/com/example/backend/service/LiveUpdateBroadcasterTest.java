@@ -0,0 +1,137 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Department;
+import com.example.backend.model.Faculty;
+import com.example.backend.model.RequestStatus;
+import com.example.backend.model.RequestUpdate;
+import com.example.backend.model.Student;
+import com.example.backend.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedConstruction;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the LiveUpdateBroadcaster class
+ * The emitters it creates are mocks, so that the events sent to each subscription can be verified
+ */
+class LiveUpdateBroadcasterTest {
+
+    private final LiveUpdateBroadcaster broadcaster = new LiveUpdateBroadcaster(Duration.ofMinutes(30));
+
+    private MockedConstruction<SseEmitter> emitters;
+
+    @BeforeEach
+    void setUp() {
+        emitters = mockConstruction(SseEmitter.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emitters.close();
+    }
+
+    /***
+     * This method is used to test the onRequestUpdate method
+     * It should push the update to the request's department and to the student who made it, whatever the case of
+     * their email, and to no one else
+     */
+    @Test
+    void testOnRequestUpdate() throws IOException {
+        SseEmitter department = broadcaster.subscribe(faculty(Department.HOUSING_OFFICE));
+        SseEmitter otherDepartment = broadcaster.subscribe(faculty(Department.REGISTRARS_OFFICE));
+        SseEmitter student = broadcaster.subscribe(student("Student@Example.com"));
+        SseEmitter otherStudent = broadcaster.subscribe(student("other@example.com"));
+
+        broadcaster.onRequestUpdate(update("student@example.com"));
+
+        verify(department).send(any(SseEmitter.SseEventBuilder.class));
+        verify(student).send(any(SseEmitter.SseEventBuilder.class));
+        verify(otherDepartment, never()).send(any(SseEmitter.SseEventBuilder.class));
+        verify(otherStudent, never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    /***
+     * This method is used to test the onRequestUpdate method
+     * when the client of a subscription went away: the subscription should be dropped and the others still served
+     */
+    @Test
+    void testOnRequestUpdate_failedSubscription() throws IOException {
+        SseEmitter closed = broadcaster.subscribe(faculty(Department.HOUSING_OFFICE));
+        SseEmitter open = broadcaster.subscribe(faculty(Department.HOUSING_OFFICE));
+        doThrow(new IOException("Broken pipe")).when(closed).send(any(SseEmitter.SseEventBuilder.class));
+
+        broadcaster.onRequestUpdate(update("student@example.com"));
+        broadcaster.onRequestUpdate(update("student@example.com"));
+
+        verify(closed, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(open, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(1, broadcaster.getSubscriptionCount());
+    }
+
+    /***
+     * This method is used to test the subscribe method
+     * A subscription should be removed when it completes, and its channel once it has no subscriptions left
+     */
+    @Test
+    void testSubscribe_completed() throws IOException {
+        SseEmitter emitter = broadcaster.subscribe(student("student@example.com"));
+        ArgumentCaptor<Runnable> onCompletion = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitter).onCompletion(onCompletion.capture());
+        assertEquals(1, broadcaster.getSubscriptionCount());
+
+        onCompletion.getValue().run();
+        broadcaster.onRequestUpdate(update("student@example.com"));
+
+        verify(emitter, never()).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(0, broadcaster.getSubscriptionCount());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(broadcaster, "channels")).isEmpty());
+    }
+
+    /***
+     * Create a status change of a housing request
+     *
+     * @param studentEmail The email of the student who made the request
+     * @return The request update
+     */
+    private RequestUpdate update(String studentEmail) {
+        return new RequestUpdate(1, RequestUpdate.Kind.STATUS_CHANGED, RequestStatus.APPROVED, Department.HOUSING_OFFICE,
+                studentEmail);
+    }
+
+    /***
+     * Create a faculty member of a department
+     *
+     * @param department The department
+     * @return The faculty member
+     */
+    private User faculty(Department department) {
+        Faculty faculty = new Faculty();
+        faculty.setEmail("faculty@example.com");
+        faculty.setDepartment(department);
+        return faculty;
+    }
+
+    /***
+     * Create a student
+     *
+     * @param email The email of the student
+     * @return The student
+     */
+    private User student(String email) {
+        Student student = new Student();
+        student.setEmail(email);
+        return student;
+    }
+}
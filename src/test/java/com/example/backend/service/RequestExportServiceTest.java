@@ -0,0 +1,118 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Department;
+import com.example.backend.model.ExportFormat;
+import com.example.backend.model.RequestExportRow;
+import com.example.backend.repository.RequestRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the RequestExportService class
+ */
+@ExtendWith(MockitoExtension.class)
+class RequestExportServiceTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RequestExportService requestExportService;
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /***
+     * Set up the export service and a department with two requests in January
+     */
+    @BeforeEach
+    void setUp() {
+        requestExportService = new RequestExportService(requestRepository, objectMapper, transactionManager);
+
+        RequestExportRow first = row(1, "Quiet floor");
+        RequestExportRow second = row(2, "Near \"campus\", please");
+        when(requestRepository.streamDepartmentExport(Department.HOUSING_OFFICE.ordinal(),
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0)))
+                .thenReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+    }
+
+    /***
+     * This method is used to test the exportDepartmentRequests method
+     * It should write a header and one quoted CSV line per request, and close the database cursor
+     */
+    @Test
+    void testExportDepartmentRequests_csv() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        requestExportService.exportDepartmentRequests(Department.HOUSING_OFFICE,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals(String.join(",", RequestExportService.COLUMNS), lines[0]);
+        assertEquals("1,student_housing,open,2024-01-10T09:30,student@example.com,Jane,Doe,,,,,,,,,Quiet floor", lines[1]);
+        assertTrue(lines[2].endsWith(",\"Near \"\"campus\"\", please\""));
+        assertTrue(closed.get());
+    }
+
+    /***
+     * This method is used to test the exportDepartmentRequests method
+     * It should write one JSON object per line
+     */
+    @Test
+    void testExportDepartmentRequests_jsonLines() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        requestExportService.exportDepartmentRequests(Department.HOUSING_OFFICE,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), ExportFormat.NDJSON, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode second = objectMapper.readTree(lines[1]);
+        assertEquals(2, second.get("id").asInt());
+        assertEquals("Near \"campus\", please", second.get("reason").asText());
+        assertTrue(second.get("approvedBy").isNull());
+        assertTrue(closed.get());
+    }
+
+    /***
+     * Create an open housing request row
+     *
+     * @param id     The request ID
+     * @param reason The reason of the request
+     * @return The row
+     */
+    private RequestExportRow row(Integer id, String reason) {
+        RequestExportRow row = mock(RequestExportRow.class);
+        lenient().when(row.getId()).thenReturn(id);
+        lenient().when(row.getType()).thenReturn("student_housing");
+        lenient().when(row.getStatus()).thenReturn("open");
+        lenient().when(row.getCreatedAt()).thenReturn(LocalDateTime.of(2024, 1, 10, 9, 30));
+        lenient().when(row.getCreatedBy()).thenReturn("student@example.com");
+        lenient().when(row.getCreatorFirstName()).thenReturn("Jane");
+        lenient().when(row.getCreatorLastName()).thenReturn("Doe");
+        // Mocked wrapper getters return 0, a housing request has no course
+        lenient().when(row.getCourseId()).thenReturn(null);
+        lenient().when(row.getReason()).thenReturn(reason);
+        return row;
+    }
+}
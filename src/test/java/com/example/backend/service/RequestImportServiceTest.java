@@ -0,0 +1,216 @@
+package com.example.backend.service;
+
+import com.example.backend.model.*;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.RequestRepository;
+import com.example.backend.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the RequestImportService class
+ */
+@ExtendWith(MockitoExtension.class)
+class RequestImportServiceTest {
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private DepartmentStatisticsService departmentStatisticsService;
+
+    @Mock
+    private ChangeStampService changeStampService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private RequestImportService requestImportService;
+
+    /***
+     * Set up an import service that saves two rows per transaction,
+     * validating with a real request service
+     */
+    @BeforeEach
+    void setUp() {
+        RequestService requestService = new RequestService(requestRepository, mock(CommentRepository.class), mock(EmailService.class),
+                mock(ApplicationEventPublisher.class), departmentStatisticsService, changeStampService);
+        requestImportService = new RequestImportService(requestService, requestRepository, studentRepository,
+                departmentStatisticsService, changeStampService, new ObjectMapper(), transactionManager, 2);
+
+        lenient().when(studentRepository.findExistingEmails(anyCollection())).thenReturn(List.of("Student@example.com"));
+        lenient().when(studentRepository.getReferenceById(any())).thenAnswer(invocation -> {
+            Student student = new Student();
+            student.setEmail(invocation.getArgument(0));
+            return student;
+        });
+    }
+
+    /***
+     * This method is used to test the importCsv method
+     * It should save the valid rows of every type and report the invalid ones with their row numbers
+     */
+    @Test
+    void testImportCsv() {
+        String csv = """
+                type,createdBy,reason,startDate,endDate,courseId,semester,housingType,duration
+                leave_of_absence,student@example.com,"Family, abroad",2024-01-15,2024-02-15,,,,
+                course_registration,student@example.com,,,,101,Spring 2024,,
+                student_housing,student@example.com,,,,,,,
+                leave_of_absence,student@example.com,,15.01.2024,,,,,
+                """;
+
+        ImportReport report = requestImportService.importCsv(stream(csv));
+
+        List<Request> saved = savedRequests();
+        assertEquals(2, report.getImported());
+        assertEquals(2, report.getRejected());
+        assertNull(report.getFailure());
+
+        LeaveOfAbsenceRequest leave = (LeaveOfAbsenceRequest) saved.get(0);
+        assertEquals("Family, abroad", leave.getReason());
+        assertEquals(LocalDate.of(2024, 1, 15), leave.getStartDate());
+        assertEquals(Department.STUDENT_AFFAIRS, leave.getAssignedDepartment());
+        assertEquals(RequestStatus.OPEN, leave.getStatus());
+        assertEquals("leave_of_absence", leave.getType());
+        assertEquals("Student@example.com", leave.getCreatedBy().getEmail());
+
+        CourseRegistrationRequest course = (CourseRegistrationRequest) saved.get(1);
+        assertEquals(101L, course.getCourseId());
+        assertEquals(Department.REGISTRARS_OFFICE, course.getAssignedDepartment());
+
+        assertEquals(3, report.getErrors().get(0).getRow());
+        assertEquals(List.of("Housing type is required", "Duration is required"), report.getErrors().get(0).getMessages());
+        assertEquals(4, report.getErrors().get(1).getRow());
+        assertEquals(List.of("Start date must be a date like 2024-01-31", "End date is required"),
+                report.getErrors().get(1).getMessages());
+    }
+
+    /***
+     * This method is used to test the importCsv method
+     * when a row names a student that does not exist or an unknown type
+     */
+    @Test
+    void testImportCsv_unknownStudentAndType() {
+        String csv = """
+                type,createdBy,courseId,semester
+                course_registration,nobody@example.com,101,Spring 2024
+                transcript,student@example.com,,
+                """;
+
+        ImportReport report = requestImportService.importCsv(stream(csv));
+
+        assertEquals(0, report.getImported());
+        assertEquals(List.of("No student with email nobody@example.com"), report.getErrors().get(0).getMessages());
+        assertTrue(report.getErrors().get(1).getMessages().get(0).startsWith("Type must be"));
+        verify(requestRepository, never()).saveAll(any());
+    }
+
+    /***
+     * This method is used to test the importCsv method
+     * when the file breaks off in the middle of a row
+     * It should keep the rows before it and report where reading stopped
+     */
+    @Test
+    void testImportCsv_malformedRow() {
+        String csv = """
+                type,createdBy,courseId,semester
+                course_registration,student@example.com,101,Spring 2024
+                course_registration,student@example.com,102,"Spring 2024
+                """;
+
+        ImportReport report = requestImportService.importCsv(stream(csv));
+
+        assertEquals(1, report.getImported());
+        assertTrue(report.getFailure().startsWith("Row 2 could not be read"));
+    }
+
+    /***
+     * This method is used to test the importJson method
+     * with an array of requests, saved two rows per transaction
+     */
+    @Test
+    void testImportJson_array() {
+        String json = """
+                [
+                  {"type": "course_registration", "createdBy": "student@example.com", "courseId": 101, "semester": "Fall"},
+                  {"type": "course_registration", "createdBy": "student@example.com", "courseId": 102, "semester": "Fall"},
+                  {"type": "course_registration", "createdBy": "student@example.com", "courseId": 103, "semester": "Fall"}
+                ]
+                """;
+
+        ImportReport report = requestImportService.importJson(stream(json));
+
+        assertEquals(3, report.getImported());
+        verify(requestRepository, times(2)).saveAll(any());
+        verify(studentRepository, times(2)).findExistingEmails(anyCollection());
+        verify(departmentStatisticsService).recordNewRequests(Map.of(Department.REGISTRARS_OFFICE, 2L));
+        verify(departmentStatisticsService).recordNewRequests(Map.of(Department.REGISTRARS_OFFICE, 1L));
+        verify(changeStampService, times(2)).touch(Set.of("department:REGISTRARS_OFFICE", "student:student@example.com"));
+    }
+
+    /***
+     * This method is used to test the importJson method
+     * with one request per line
+     */
+    @Test
+    void testImportJson_lines() {
+        String json = """
+                {"type": "student_housing", "createdBy": "student@example.com", "housingType": "Dorm", "duration": "1 year"}
+                {"type": "student_housing", "createdBy": "student@example.com", "housingType": "Dorm", "duration": ""}
+                """;
+
+        ImportReport report = requestImportService.importJson(stream(json));
+
+        assertEquals(1, report.getImported());
+        assertEquals(List.of("Duration is required"), report.getErrors().get(0).getMessages());
+    }
+
+    /***
+     * Capture all requests that were saved
+     *
+     * @return The saved requests, in order
+     */
+    @SuppressWarnings("unchecked")
+    private List<Request> savedRequests() {
+        ArgumentCaptor<Iterable<Request>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(requestRepository, atLeastOnce()).saveAll(captor.capture());
+
+        return captor.getAllValues().stream()
+                .flatMap(requests -> ((List<Request>) requests).stream())
+                .toList();
+    }
+
+    /***
+     * Create the content of an uploaded file
+     *
+     * @param content The text of the file
+     * @return The stream of the file
+     */
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
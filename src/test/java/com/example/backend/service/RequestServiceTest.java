@@ -1,17 +1,26 @@
 package com.example.backend.service;
 
-import com.example.backend.model.CourseRegistrationRequest;
-import com.example.backend.model.LeaveOfAbsenceRequest;
-import com.example.backend.model.StudentHousingRequest;
+import com.example.backend.model.*;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.RequestRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.ui.Model;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 
@@ -23,6 +32,24 @@ import static org.junit.jupiter.api.Assertions.*;
 @ExtendWith(MockitoExtension.class)
 class RequestServiceTest {
 
+    @Mock
+    private RequestRepository requestRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DepartmentStatisticsService departmentStatisticsService;
+
+    @Mock
+    private ChangeStampService changeStampService;
+
     @InjectMocks
     private RequestService requestService;
 
@@ -127,4 +154,432 @@ class RequestServiceTest {
         assertFalse(hasErrors);
         verify(model, never()).addAttribute(anyString(), anyString());
     }
+
+    /***
+     * This method is used to test the getStudentDashboardRequests method
+     * The student's requests are loaded with one query and grouped by type
+     */
+    @Test
+    void testGetStudentDashboardRequests() {
+        RequestSummary leaveRequest = summaryOfType("leave_of_absence");
+        RequestSummary courseRequest = summaryOfType("course_registration");
+        when(requestRepository.findStudentDashboardRequests("student@example.com")).thenReturn(List.of(leaveRequest, courseRequest));
+
+        DashboardRequests dashboardRequests = requestService.getStudentDashboardRequests("student@example.com");
+
+        assertEquals(List.of(leaveRequest), dashboardRequests.getLeaveRequests());
+        assertEquals(List.of(courseRequest), dashboardRequests.getCourseRequests());
+        assertTrue(dashboardRequests.getHousingRequests().isEmpty());
+    }
+
+    /***
+     * This method is used to test the getFacultyQueue method
+     * when the first page is requested and older requests exist
+     */
+    @Test
+    void testGetFacultyQueue_firstPage() {
+        Faculty faculty = faculty();
+        FacultyQueueFilter filter = new FacultyQueueFilter();
+        filter.setSize(2);
+        filter.setStatus("");
+        LocalDateTime now = LocalDateTime.now();
+        List<RequestSummary> rows = List.of(summary(3, now), summary(2, now.minusHours(1)), summary(1, now.minusHours(2)));
+        when(requestRepository.findFacultyQueueFirstPage("faculty@example.com", Department.HOUSING_OFFICE.ordinal(), null, null, 3))
+                .thenReturn(rows);
+
+        KeysetPage<RequestSummary> page = requestService.getFacultyQueue(faculty, filter);
+
+        assertEquals(rows.subList(0, 2), page.getItems());
+        assertNull(page.getPreviousCursor());
+        assertEquals(2L, KeysetCursor.decode(page.getNextCursor()).getId());
+    }
+
+    /***
+     * This method is used to test the getFacultyQueue method
+     * when paging backwards from a cursor
+     */
+    @Test
+    void testGetFacultyQueue_previousPage() {
+        Faculty faculty = faculty();
+        LocalDateTime now = LocalDateTime.now();
+        FacultyQueueFilter filter = new FacultyQueueFilter();
+        filter.setSize(2);
+        filter.setBefore(new KeysetCursor(now.minusHours(3), 1L).encode());
+        RequestSummary newest = summary(3, now);
+        RequestSummary older = summary(2, now.minusHours(1));
+        when(requestRepository.findFacultyQueueBefore("faculty@example.com", Department.HOUSING_OFFICE.ordinal(), null, null, now.minusHours(3), 1L, 3))
+                .thenReturn(List.of(older, newest));
+
+        KeysetPage<RequestSummary> page = requestService.getFacultyQueue(faculty, filter);
+
+        assertEquals(List.of(newest, older), page.getItems());
+        assertNull(page.getPreviousCursor());
+        assertEquals(2L, KeysetCursor.decode(page.getNextCursor()).getId());
+    }
+
+    /***
+     * This method is used to test the getCommentPage method
+     * when the request has more comments than fit on one page
+     */
+    @Test
+    void testGetCommentPage_hasOlderComments() {
+        LocalDateTime now = LocalDateTime.now();
+        List<CommentView> rows = new ArrayList<>();
+        for (int i = 0; i <= RequestService.COMMENT_PAGE_SIZE; i++) {
+            rows.add(comment((long) (100 - i), now.minusMinutes(i)));
+        }
+        when(commentRepository.findLatestByRequestId(1, RequestService.COMMENT_PAGE_SIZE + 1)).thenReturn(rows);
+
+        KeysetPage<CommentView> page = requestService.getCommentPage(1, null);
+
+        assertEquals(RequestService.COMMENT_PAGE_SIZE, page.getItems().size());
+        assertEquals(rows.get(RequestService.COMMENT_PAGE_SIZE - 1), page.getItems().get(0));
+        assertEquals(rows.get(0), page.getItems().get(RequestService.COMMENT_PAGE_SIZE - 1));
+        assertEquals(81L, KeysetCursor.decode(page.getPreviousCursor()).getId());
+        assertNull(page.getNextCursor());
+    }
+
+    /***
+     * This method is used to test the getCommentPage method
+     * when loading the last page of older comments
+     */
+    @Test
+    void testGetCommentPage_olderComments() {
+        LocalDateTime now = LocalDateTime.now();
+        CommentView newer = comment(2L, now.minusHours(1));
+        CommentView oldest = comment(1L, now.minusHours(2));
+        when(commentRepository.findOlderByRequestId(1, now, 3L, RequestService.COMMENT_PAGE_SIZE + 1))
+                .thenReturn(List.of(newer, oldest));
+
+        KeysetPage<CommentView> page = requestService.getCommentPage(1, new KeysetCursor(now, 3L).encode());
+
+        assertEquals(List.of(oldest, newer), page.getItems());
+        assertNull(page.getPreviousCursor());
+    }
+
+    /***
+     * This method is used to test the getFacultyQueue method
+     * when the cursors are not valid, e.g. altered by hand
+     */
+    @Test
+    void testGetFacultyQueue_invalidCursor() {
+        Faculty faculty = faculty();
+        FacultyQueueFilter filter = new FacultyQueueFilter();
+        filter.setSize(2);
+        filter.setBefore("not-a-cursor");
+        // Base64 of "not-a-cursor"
+        filter.setAfter("bm90LWEtY3Vyc29y");
+        RequestSummary newest = summary(3, LocalDateTime.now());
+        when(requestRepository.findFacultyQueueFirstPage("faculty@example.com", Department.HOUSING_OFFICE.ordinal(), null, null, 3))
+                .thenReturn(List.of(newest));
+
+        KeysetPage<RequestSummary> page = requestService.getFacultyQueue(faculty, filter);
+
+        assertEquals(List.of(newest), page.getItems());
+        assertNull(page.getPreviousCursor());
+        assertNull(page.getNextCursor());
+    }
+
+    /***
+     * This method is used to test the searchRequests method
+     * A faculty member searches the requests of their department, and a full page means there is a next page
+     */
+    @Test
+    void testSearchRequests_faculty() {
+        List<RequestSearchResult> rows = new ArrayList<>();
+        for (int i = 0; i <= SearchPage.PAGE_SIZE; i++) {
+            rows.add(mock(RequestSearchResult.class));
+        }
+        when(requestRepository.searchRequests("quiet floor", Department.HOUSING_OFFICE.ordinal(), null,
+                SearchPage.PAGE_SIZE + 1, SearchPage.PAGE_SIZE)).thenReturn(rows);
+
+        SearchPage page = requestService.searchRequests(faculty(), " quiet floor ", 1);
+
+        assertEquals("quiet floor", page.getQuery());
+        assertEquals(rows.subList(0, SearchPage.PAGE_SIZE), page.getItems());
+        assertTrue(page.isHasPrevious());
+        assertTrue(page.isHasNext());
+    }
+
+    /***
+     * This method is used to test the searchRequests method
+     * A student searches only their own requests
+     */
+    @Test
+    void testSearchRequests_student() {
+        Student student = new Student();
+        student.setEmail("student@example.com");
+        RequestSearchResult result = mock(RequestSearchResult.class);
+        when(requestRepository.searchRequests("visa", null, "student@example.com", SearchPage.PAGE_SIZE + 1, 0))
+                .thenReturn(List.of(result));
+
+        SearchPage page = requestService.searchRequests(student, "visa", -1);
+
+        assertEquals(List.of(result), page.getItems());
+        assertEquals(0, page.getPage());
+        assertFalse(page.isHasNext());
+    }
+
+    /***
+     * This method is used to test the searchRequests method
+     * when the search text is blank, which should not query the database
+     */
+    @Test
+    void testSearchRequests_blankQuery() {
+        SearchPage page = requestService.searchRequests(faculty(), "  ", 0);
+
+        assertTrue(page.getItems().isEmpty());
+        verifyNoInteractions(requestRepository);
+    }
+
+    /***
+     * This method is used to test the createRequest method
+     * It should save and count the request, mark the dashboards showing it as changed
+     * and queue the emails to the creator and the department
+     */
+    @Test
+    void testCreateRequest() {
+        Student student = new Student();
+        student.setEmail("student@example.com");
+        LeaveOfAbsenceRequest request = new LeaveOfAbsenceRequest();
+        request.setAssignedDepartment(Department.STUDENT_AFFAIRS);
+
+        requestService.createRequest(request, student);
+
+        verify(requestRepository).save(request);
+        verify(departmentStatisticsService).recordNewRequests(Map.of(Department.STUDENT_AFFAIRS, 1L));
+        verify(changeStampService).touchRequest(Department.STUDENT_AFFAIRS, "student@example.com");
+        verify(emailService).sendRequestCreationConfirmationEmail(request, "student@example.com");
+        verify(emailService).sendRequestCreationEmailToFaculty(request, student);
+        verify(eventPublisher).publishEvent(any(RequestUpdate.class));
+    }
+
+    /***
+     * This method is used to test the addComment method
+     * It should save the comment with its request and author, bump the request's version
+     * and announce it to the request's dashboards
+     */
+    @Test
+    void testAddComment() {
+        Student student = new Student();
+        student.setEmail("student@example.com");
+        Request request = new Request();
+        request.setId(1);
+        request.setCreatedBy(student);
+        request.setAssignedDepartment(Department.HOUSING_OFFICE);
+        Comment comment = new Comment();
+
+        requestService.addComment(request, faculty(), comment);
+
+        verify(commentRepository).save(comment);
+        verify(requestRepository).touchRequest(1);
+        assertEquals(request, comment.getRequest());
+        assertEquals("faculty@example.com", comment.getUser().getEmail());
+
+        ArgumentCaptor<RequestUpdate> update = ArgumentCaptor.forClass(RequestUpdate.class);
+        verify(eventPublisher).publishEvent(update.capture());
+        assertEquals(RequestUpdate.Kind.COMMENTED, update.getValue().getKind());
+        assertEquals(Department.HOUSING_OFFICE, update.getValue().getDepartment());
+        assertEquals("student@example.com", update.getValue().getStudentEmail());
+    }
+
+    /***
+     * This method is used to test the updateRequestStatus method
+     * It should change the request with one conditional update and queue the email to its creator
+     */
+    @Test
+    void testUpdateRequestStatus_changed() {
+        DecidedRequest decided = mock(DecidedRequest.class);
+        when(decided.getAssignedDepartment()).thenReturn(Department.HOUSING_OFFICE.ordinal());
+        when(decided.getCreatedBy()).thenReturn("Student@example.com");
+        when(requestRepository.decideOpenRequests(List.of(1), Department.HOUSING_OFFICE.ordinal(), "faculty@example.com", "approved"))
+                .thenReturn(List.of(decided));
+
+        StatusChangeResult result = requestService.updateRequestStatus(faculty(), 1, RequestStatus.APPROVED);
+
+        assertEquals(StatusChangeResult.CHANGED, result);
+        verify(departmentStatisticsService).recordStatusChanges(List.of(decided));
+        verify(changeStampService).touch(List.of("department:HOUSING_OFFICE", "student:student@example.com"));
+        verify(emailService).sendRequestStatusChangesToStudents(List.of(decided), RequestStatus.APPROVED);
+
+        ArgumentCaptor<RequestUpdate> update = ArgumentCaptor.forClass(RequestUpdate.class);
+        verify(eventPublisher).publishEvent(update.capture());
+        assertEquals(RequestUpdate.Kind.STATUS_CHANGED, update.getValue().getKind());
+        assertEquals(RequestStatus.APPROVED, update.getValue().getStatus());
+        assertEquals(Department.HOUSING_OFFICE, update.getValue().getDepartment());
+        verify(requestRepository, never()).findStatusById(any());
+    }
+
+    /***
+     * This method is used to test the updateRequestStatus method
+     * when another decision on the request won the race
+     */
+    @Test
+    void testUpdateRequestStatus_alreadyDecided() {
+        when(requestRepository.decideOpenRequests(List.of(1), Department.HOUSING_OFFICE.ordinal(), "faculty@example.com", "rejected"))
+                .thenReturn(List.of());
+        when(requestRepository.findStatusById(1)).thenReturn(Optional.of(RequestStatus.APPROVED));
+
+        StatusChangeResult result = requestService.updateRequestStatus(faculty(), 1, RequestStatus.REJECTED);
+
+        assertEquals(StatusChangeResult.ALREADY_DECIDED, result);
+        verifyNoInteractions(emailService, departmentStatisticsService);
+    }
+
+    /***
+     * This method is used to test the updateRequestStatus method
+     * when the open request belongs to another department
+     */
+    @Test
+    void testUpdateRequestStatus_otherDepartment() {
+        when(requestRepository.decideOpenRequests(List.of(1), Department.HOUSING_OFFICE.ordinal(), "faculty@example.com", "approved"))
+                .thenReturn(List.of());
+        when(requestRepository.findStatusById(1)).thenReturn(Optional.of(RequestStatus.OPEN));
+
+        StatusChangeResult result = requestService.updateRequestStatus(faculty(), 1, RequestStatus.APPROVED);
+
+        assertEquals(StatusChangeResult.NOT_ALLOWED, result);
+    }
+
+    /***
+     * This method is used to test the updateRequestStatus method
+     * when the request does not exist
+     */
+    @Test
+    void testUpdateRequestStatus_notFound() {
+        Student student = new Student();
+        student.setEmail("student@example.com");
+        when(requestRepository.withdrawRequests(List.of(1), "student@example.com")).thenReturn(List.of());
+        when(requestRepository.findStatusById(1)).thenReturn(Optional.empty());
+
+        StatusChangeResult result = requestService.updateRequestStatus(student, 1, RequestStatus.WITHDRAWN);
+
+        assertEquals(StatusChangeResult.NOT_FOUND, result);
+    }
+
+    /***
+     * This method is used to test the updateRequestStatus method
+     * when a student tries to approve a request
+     */
+    @Test
+    void testUpdateRequestStatus_studentCannotApprove() {
+        StatusChangeResult result = requestService.updateRequestStatus(new Student(), 1, RequestStatus.APPROVED);
+
+        assertEquals(StatusChangeResult.NOT_ALLOWED, result);
+        verifyNoInteractions(requestRepository);
+    }
+
+    /***
+     * This method is used to test the bulkUpdateStatus method
+     * when a faculty member approves several requests
+     */
+    @Test
+    void testBulkUpdateStatus_approve() {
+        Faculty faculty = faculty();
+        DecidedRequest decided = mock(DecidedRequest.class);
+        when(decided.getAssignedDepartment()).thenReturn(Department.HOUSING_OFFICE.ordinal());
+        when(decided.getCreatedBy()).thenReturn("student@example.com");
+        when(requestRepository.decideOpenRequests(List.of(1, 2), Department.HOUSING_OFFICE.ordinal(), "faculty@example.com", "approved"))
+                .thenReturn(List.of(decided));
+
+        int updated = requestService.bulkUpdateStatus(faculty, Arrays.asList(1, 2, 2, null), RequestStatus.APPROVED);
+
+        assertEquals(1, updated);
+        verify(emailService).sendRequestStatusChangesToStudents(List.of(decided), RequestStatus.APPROVED);
+    }
+
+    /***
+     * This method is used to test the bulkUpdateStatus method
+     * when a student withdraws several requests
+     */
+    @Test
+    void testBulkUpdateStatus_withdraw() {
+        Student student = new Student();
+        student.setEmail("student@example.com");
+        when(requestRepository.withdrawRequests(List.of(3, 4), "student@example.com")).thenReturn(List.of());
+
+        int updated = requestService.bulkUpdateStatus(student, List.of(3, 4), RequestStatus.WITHDRAWN);
+
+        assertEquals(0, updated);
+        verifyNoInteractions(emailService);
+    }
+
+    /***
+     * This method is used to test the bulkUpdateStatus method
+     * when a faculty member tries to withdraw requests
+     */
+    @Test
+    void testBulkUpdateStatus_facultyCannotWithdraw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> requestService.bulkUpdateStatus(faculty(), List.of(1), RequestStatus.WITHDRAWN));
+        verify(requestRepository, never()).withdrawRequests(any(), any());
+    }
+
+    /***
+     * This method is used to test the bulkUpdateStatus method
+     * when more requests are selected than can be updated at once
+     */
+    @Test
+    void testBulkUpdateStatus_tooManyRequests() {
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= RequestService.MAX_BULK_SIZE + 1; id++) {
+            ids.add(id);
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> requestService.bulkUpdateStatus(faculty(), ids, RequestStatus.APPROVED));
+        verifyNoInteractions(requestRepository);
+    }
+
+    /***
+     * Create a faculty member of the housing office
+     *
+     * @return The faculty member
+     */
+    private Faculty faculty() {
+        Faculty faculty = new Faculty();
+        faculty.setEmail("faculty@example.com");
+        faculty.setDepartment(Department.HOUSING_OFFICE);
+        return faculty;
+    }
+
+    /***
+     * Create a request summary with the given position in the queue
+     *
+     * @param id        The request ID
+     * @param createdAt The creation time of the request
+     * @return The request summary
+     */
+    private RequestSummary summary(Integer id, LocalDateTime createdAt) {
+        RequestSummary summary = mock(RequestSummary.class);
+        lenient().when(summary.getId()).thenReturn(id);
+        lenient().when(summary.getCreatedAt()).thenReturn(createdAt);
+        return summary;
+    }
+
+    /***
+     * Create a request summary of the given type
+     *
+     * @param type The request type
+     * @return The request summary
+     */
+    private RequestSummary summaryOfType(String type) {
+        RequestSummary summary = mock(RequestSummary.class);
+        when(summary.getType()).thenReturn(type);
+        return summary;
+    }
+
+    /***
+     * Create a comment with the given position in the thread
+     *
+     * @param id        The comment ID
+     * @param createdAt The creation time of the comment
+     * @return The comment
+     */
+    private CommentView comment(Long id, LocalDateTime createdAt) {
+        CommentView comment = mock(CommentView.class);
+        lenient().when(comment.getId()).thenReturn(id);
+        lenient().when(comment.getCreatedAt()).thenReturn(createdAt);
+        return comment;
+    }
 }
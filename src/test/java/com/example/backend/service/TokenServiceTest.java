@@ -0,0 +1,188 @@
+package com.example.backend.service;
+
+import com.example.backend.config.TokenConfig;
+import com.example.backend.model.TokenResponse;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/***
+ * This class is used to test the TokenService class
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenServiceTest {
+
+    private static final String ISSUER = "request-approval-system";
+    private static final String PASSWORD_HASH = "{bcrypt}$2a$10$stored";
+
+    private final SecretKey key = new SecretKeySpec(new byte[32], "HmacSHA256");
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private TokenService tokenService;
+    private JwtDecoder accessTokenDecoder;
+
+    /***
+     * Set up a token service issuing 15 minute access tokens and 8 hour refresh tokens
+     */
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService(new NimbusJwtEncoder(new ImmutableSecret<>(key)), key, userDetailsService,
+                ISSUER, Duration.ofMinutes(15), Duration.ofHours(8));
+        accessTokenDecoder = TokenConfig.tokenDecoder(key, ISSUER, TokenConfig.ACCESS_TOKEN);
+    }
+
+    /***
+     * This method is used to test the issueTokens method
+     * The access token should carry the user's email and authority names and be accepted without loading the user
+     */
+    @Test
+    void testIssueTokens() {
+        TokenResponse tokens = issueTokens(tokenService, "student@example.com", "STUDENT");
+
+        Jwt accessToken = accessTokenDecoder.decode(tokens.getAccessToken());
+        assertEquals("student@example.com", accessToken.getSubject());
+        assertEquals(List.of("STUDENT"), accessToken.getClaimAsStringList(TokenConfig.ROLES_CLAIM));
+        assertEquals(900, tokens.getExpiresIn());
+        assertEquals("Bearer", tokens.getTokenType());
+        // Loaded once to issue the tokens, for the password hash; not again to accept the access token
+        verify(userDetailsService, times(1)).loadUserByUsername("student@example.com");
+    }
+
+    /***
+     * This method is used to test the issueTokens method
+     * A refresh token should not be accepted as an access token
+     */
+    @Test
+    void testIssueTokens_refreshTokenIsNotAnAccessToken() {
+        TokenResponse tokens = issueTokens(tokenService, "student@example.com", "STUDENT");
+
+        assertThrows(JwtException.class, () -> accessTokenDecoder.decode(tokens.getRefreshToken()));
+    }
+
+    /***
+     * This method is used to test the refreshTokens method
+     * It should issue new tokens with the user's current authorities
+     */
+    @Test
+    void testRefreshTokens() {
+        TokenResponse tokens = issueTokens(tokenService, "faculty@example.com", "FACULTY");
+        when(userDetailsService.loadUserByUsername("faculty@example.com"))
+                .thenReturn(user("faculty@example.com", PASSWORD_HASH, "FACULTY", "ADMIN"));
+
+        TokenResponse refreshed = tokenService.refreshTokens(tokens.getRefreshToken());
+
+        Jwt accessToken = accessTokenDecoder.decode(refreshed.getAccessToken());
+        assertEquals("faculty@example.com", accessToken.getSubject());
+        assertEquals(Set.of("FACULTY", "ADMIN"), Set.copyOf(accessToken.getClaimAsStringList(TokenConfig.ROLES_CLAIM)));
+        assertNotEquals(tokens.getRefreshToken(), refreshed.getRefreshToken());
+    }
+
+    /***
+     * This method is used to test the refreshTokens method
+     * when the user's password was changed or reset since the refresh token was issued
+     */
+    @Test
+    void testRefreshTokens_passwordChanged() {
+        TokenResponse tokens = issueTokens(tokenService, "student@example.com", "STUDENT");
+        when(userDetailsService.loadUserByUsername("student@example.com"))
+                .thenReturn(user("student@example.com", "{bcrypt}$2a$10$another", "STUDENT"));
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refreshTokens(tokens.getRefreshToken()));
+    }
+
+    /***
+     * This method is used to test the refreshTokens method
+     * when an access token is sent instead of a refresh token
+     */
+    @Test
+    void testRefreshTokens_accessToken() {
+        TokenResponse tokens = issueTokens(tokenService, "student@example.com", "STUDENT");
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refreshTokens(tokens.getAccessToken()));
+        verify(userDetailsService, times(1)).loadUserByUsername("student@example.com");
+    }
+
+    /***
+     * This method is used to test the refreshTokens method
+     * when the token was signed with another key
+     */
+    @Test
+    void testRefreshTokens_forged() {
+        SecretKey otherKey = new SecretKeySpec("another-key-of-at-least-256-bits".getBytes(), "HmacSHA256");
+        TokenService forger = new TokenService(new NimbusJwtEncoder(new ImmutableSecret<>(otherKey)), otherKey,
+                userDetailsService, ISSUER, Duration.ofMinutes(15), Duration.ofHours(8));
+        TokenResponse tokens = issueTokens(forger, "faculty@example.com", "FACULTY");
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.refreshTokens(tokens.getRefreshToken()));
+        assertThrows(JwtException.class, () -> accessTokenDecoder.decode(tokens.getAccessToken()));
+    }
+
+    /***
+     * This method is used to test the refreshTokens method
+     * when the user was deleted or locked since the tokens were issued
+     */
+    @Test
+    void testRefreshTokens_userNoLongerValid() {
+        TokenResponse tokens = issueTokens(tokenService, "student@example.com", "STUDENT");
+
+        when(userDetailsService.loadUserByUsername("student@example.com")).thenThrow(new UsernameNotFoundException("gone"));
+        assertThrows(BadCredentialsException.class, () -> tokenService.refreshTokens(tokens.getRefreshToken()));
+
+        reset(userDetailsService);
+        when(userDetailsService.loadUserByUsername("student@example.com"))
+                .thenReturn(User.withUsername("student@example.com").password(PASSWORD_HASH).authorities("STUDENT").accountLocked(true).build());
+        assertThrows(LockedException.class, () -> tokenService.refreshTokens(tokens.getRefreshToken()));
+    }
+
+    /***
+     * Issue tokens to a user who signed in with their credentials
+     *
+     * @param service     The token service issuing the tokens
+     * @param email       The email of the user
+     * @param authorities The authorities of the user
+     * @return The tokens
+     */
+    private TokenResponse issueTokens(TokenService service, String email, String... authorities) {
+        when(userDetailsService.loadUserByUsername(email)).thenReturn(user(email, PASSWORD_HASH, authorities));
+        return service.issueTokens(UsernamePasswordAuthenticationToken.authenticated(
+                email, null, AuthorityUtils.createAuthorityList(authorities)));
+    }
+
+    /***
+     * Create a stored user
+     *
+     * @param email        The email of the user
+     * @param passwordHash The stored hash of the user's password
+     * @param authorities  The authorities of the user
+     * @return The user
+     */
+    private UserDetails user(String email, String passwordHash, String... authorities) {
+        return User.withUsername(email).password(passwordHash).authorities(authorities).build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.backend.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/***
+ * Records every SQL statement Hibernate prepares on the current thread while counting is started.
+ * Registered as the session factory's statement inspector by {@link QueryCountTestBase}; statements of other threads,
+ * e.g. the scheduled jobs, are not recorded.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    /***
+     * Start recording the statements of the current thread, discarding earlier ones
+     */
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    /***
+     * Stop recording the statements of the current thread
+     *
+     * @return The statements recorded since start, in order
+     */
+    public static List<String> stop() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements == null ? List.of() : statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.backend.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.servlet.ModelAndView;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/***
+ * Base class of the tests that guard how many SQL statements an endpoint issues.
+ * The application runs against a PostgreSQL container created from database/init.sql, so that the native queries
+ * and the lazy loading of the templates run for real; MockMvc renders the templates, so lazy loads during rendering
+ * are counted too. The tests are skipped where Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.backend.support.QueryCountInspector",
+        "mail.sender.username=test",
+        "mail.sender.password=test"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class QueryCountTestBase {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCopyFileToContainer(MountableFile.forHostPath("database/init.sql"), "/docker-entrypoint-initdb.d/init.sql");
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    /***
+     * Perform a request, expect it to succeed and fail if it issued more SQL statements than allowed
+     *
+     * @param maxStatements The most statements the request may issue
+     * @param request       The request
+     * @return The result of the request
+     * @throws Exception If the request fails
+     */
+    protected MvcResult assertMaxStatements(int maxStatements, RequestBuilder request) throws Exception {
+        MvcResult result;
+        List<String> statements;
+        QueryCountInspector.start();
+        try {
+            result = mockMvc.perform(request).andReturn();
+        } finally {
+            statements = QueryCountInspector.stop();
+        }
+
+        int status = result.getResponse().getStatus();
+        assertTrue(status < 400, "Request failed with status " + status);
+        // GlobalExceptionHandler renders the error page with status 200, so a failed request is only told apart by that
+        assertNull(result.getResolvedException(), () -> "Request failed with " + result.getResolvedException());
+        ModelAndView modelAndView = result.getModelAndView();
+        assertFalse(modelAndView != null && "error".equals(modelAndView.getViewName()), "Request rendered the error page");
+        if (statements.size() > maxStatements) {
+            fail("Expected at most " + maxStatements + " SQL statements but the request issued " + statements.size()
+                    + ":\n" + String.join("\n", statements));
+        }
+        return result;
+    }
+}
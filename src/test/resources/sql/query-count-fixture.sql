@@ -0,0 +1,42 @@
+-- A housing office with 500 requests by two students, the oldest of which has 60 comments by three authors.
+-- Large enough that a per-row query on any page shows up as hundreds of statements.
+
+insert into users (email, password, first_name, last_name, phone)
+values ('faculty@example.com', '{noop}password', 'Fay', 'Culty', '555-0100'),
+       ('student@example.com', '{noop}password', 'Stu', 'Dent', '555-0101'),
+       ('other@example.com', '{noop}password', 'Otto', 'Ther', '555-0102');
+
+insert into authorities (authority, email)
+values ('FACULTY', 'faculty@example.com'),
+       ('STUDENT', 'student@example.com'),
+       ('STUDENT', 'other@example.com');
+
+-- Department 2 is Department.HOUSING_OFFICE
+insert into faculty (email, department)
+values ('faculty@example.com', 2);
+
+insert into students (email, studentid)
+values ('student@example.com', 'S0001'),
+       ('other@example.com', 'S0002');
+
+insert into requests (status, created_at, created_by, housing_type, duration, reason, request_type, type,
+                      assigned_department)
+select 'open',
+       now() - n * interval '1 hour',
+       case when n % 2 = 0 then 'student@example.com' else 'other@example.com' end,
+       'Dorm',
+       '1 year',
+       'Quiet room near the library ' || n,
+       'student_housing',
+       'student_housing',
+       2
+from generate_series(1, 500) n;
+
+insert into comments (request_id, user_id, text, created_at)
+select r.id,
+       case c % 3 when 0 then 'faculty@example.com' when 1 then 'student@example.com' else 'other@example.com' end,
+       'Comment ' || c,
+       r.created_at + c * interval '1 minute'
+from requests r,
+     generate_series(1, 60) c
+where r.id = (select min(id) from requests);